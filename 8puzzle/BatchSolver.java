@@ -0,0 +1,273 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Solves many puzzles at once on a fixed number of worker
+ *                  threads. Every puzzle gets its own Solver with the same
+ *                  options, so a PatternDatabase is built or mapped once and
+ *                  read by all the workers. The results are handed back on
+ *                  the calling thread in the order the puzzles finish.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class BatchSolver {
+    /**
+     * what the solver found for one puzzle
+     */
+    public static class Result {
+        private final int index;
+        private final String source;
+        private final Board board;
+        private final int moves;
+        private final long expanded;
+        private final double seconds;
+        private final boolean solvable;
+        private final boolean gaveUp;
+
+        private Result(int index, String source, Board board, Solver solver, double seconds) {
+            this.index = index;
+            this.source = source;
+            this.board = board;
+            this.moves = solver.moves();
+            this.expanded = solver.expanded();
+            this.seconds = seconds;
+            this.solvable = solver.isSolvable();
+            this.gaveUp = solver.gaveUp();
+        }
+
+        /**
+         * @return the position of the puzzle in the input, from 0
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * @return where the puzzle came from, null if the caller did not say
+         */
+        public String source() {
+            return source;
+        }
+
+        /**
+         * @return the puzzle
+         */
+        public Board board() {
+            return board;
+        }
+
+        /**
+         * @return the min number of moves, -1 if unsolvable or the solver gave up
+         */
+        public int moves() {
+            return moves;
+        }
+
+        /**
+         * @return the number of boards the search expanded
+         */
+        public long expanded() {
+            return expanded;
+        }
+
+        /**
+         * @return the seconds the solver took
+         */
+        public double seconds() {
+            return seconds;
+        }
+
+        /**
+         * @return true if the puzzle can be solved
+         */
+        public boolean isSolvable() {
+            return solvable;
+        }
+
+        /**
+         * @return true if the node or time budget ran out first
+         */
+        public boolean gaveUp() {
+            return gaveUp;
+        }
+    }
+
+    private final int threads;
+    private final Solver.Options options;
+
+    /**
+     * creates a batch solver
+     *
+     * @param threads the number of worker threads
+     * @param options the options of every Solver, they are shared and should not be
+     *                changed while a batch runs, so they cannot carry Solver.Metrics
+     */
+    public BatchSolver(int threads, Solver.Options options) {
+        if (threads <= 0) throw new IllegalArgumentException("threads has to be positive");
+        if (options == null) throw new IllegalArgumentException("options cannot be null");
+        checkMetrics(options);
+        this.threads = threads;
+        this.options = options;
+    }
+
+    /**
+     * solves every puzzle, at most twice as many puzzles as there are threads are read
+     * ahead so the input can be a stream of any length
+     *
+     * @param puzzles the puzzles
+     * @param results called on this thread with every result as soon as it is ready
+     * @return the number of puzzles solved
+     */
+    public int solve(Iterator<Board> puzzles, Consumer<Result> results) {
+        return solve(puzzles, () -> null, results);
+    }
+
+    /**
+     * solves every puzzle like solve(puzzles, results) and names where each one came
+     * from in its result
+     *
+     * @param puzzles the puzzles
+     * @param source  called on this thread right after every puzzle is read, gives
+     *                the name of its source
+     * @param results called on this thread with every result as soon as it is ready
+     * @return the number of puzzles solved
+     */
+    public int solve(Iterator<Board> puzzles, Supplier<String> source,
+                     Consumer<Result> results) {
+        if (puzzles == null) throw new IllegalArgumentException("puzzles cannot be null");
+        if (source == null) throw new IllegalArgumentException("source cannot be null");
+        if (results == null) throw new IllegalArgumentException("results cannot be null");
+        checkMetrics(options);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<Result> done = new ExecutorCompletionService<Result>(pool);
+            int submitted = 0;
+            int running = 0;
+            while (puzzles.hasNext()) {
+                if (running == 2 * threads) {
+                    results.accept(take(done));
+                    running--;
+                }
+                Board board = puzzles.next();
+                if (board == null) throw new IllegalArgumentException("puzzle cannot be null");
+                int index = submitted++;
+                String name = source.get();
+                done.submit(() -> {
+                    long start = System.nanoTime();
+                    Solver solver = new Solver(board, options);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    return new Result(index, name, board, solver, seconds);
+                });
+                running++;
+            }
+            for (; running > 0; running--) {
+                results.accept(take(done));
+            }
+            return submitted;
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // the counters of Solver.Metrics are not synchronized, every worker would write them
+    private static void checkMetrics(Solver.Options options) {
+        if (options.hasMetrics()) {
+            throw new IllegalArgumentException("options cannot carry metrics in a batch");
+        }
+    }
+
+    private static Result take(CompletionService<Result> done) {
+        try {
+            return done.take().get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while solving", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("a puzzle failed", e.getCause());
+        }
+    }
+
+    /**
+     * reads puzzles from files one after the other, every file holds one or more
+     * puzzles as n followed by the n * n tiles
+     */
+    private static class PuzzleReader implements Iterator<Board> {
+        private final String[] files;
+        private int file = -1;
+        private In in;
+
+        PuzzleReader(String[] files) {
+            this.files = files;
+        }
+
+        public boolean hasNext() {
+            while (in == null || in.isEmpty()) {
+                if (in != null) in.close();
+                if (++file >= Math.max(files.length, 1)) return false;
+                in = files.length == 0 ? new In() : new In(files[file]);
+            }
+            return true;
+        }
+
+        public Board next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int n = in.readInt();
+            int[][] tiles = new int[n][n];
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    tiles[i][j] = in.readInt();
+            return new Board(tiles);
+        }
+
+        // the file of the puzzle read last
+        String name() {
+            return files.length == 0 ? "stdin" : files[file];
+        }
+    }
+
+    /**
+     * solves the puzzles of the given files, or of standard input without files, and
+     * prints a line for every puzzle as it finishes
+     *
+     * @param args [-threads t] [-ida] [-pdb file] [-nodes n] [-millis m] files
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Solver.Options options = new Solver.Options();
+        int k = 0;
+        for (; k < args.length && args[k].startsWith("-"); k++) {
+            if (args[k].equals("-threads")) threads = Integer.parseInt(args[++k]);
+            else if (args[k].equals("-ida")) options.algorithm(Solver.Algorithm.IDA_STAR);
+            else if (args[k].equals("-pdb")) options.heuristic(PatternDatabase.load(args[++k]));
+            else if (args[k].equals("-nodes")) options.nodeLimit(Long.parseLong(args[++k]));
+            else if (args[k].equals("-millis")) options.timeLimit(Long.parseLong(args[++k]));
+            else throw new IllegalArgumentException("unknown option " + args[k]);
+        }
+        String[] files = new String[args.length - k];
+        System.arraycopy(args, k, files, 0, files.length);
+
+        PuzzleReader reader = new PuzzleReader(files);
+        new BatchSolver(threads, options).solve(reader, reader::name, result -> {
+            String name = result.source() + "#" + result.index();
+            String moves;
+            if (!result.isSolvable()) moves = "unsolvable";
+            else if (result.gaveUp()) moves = "gave up";
+            else moves = result.moves() + " moves";
+            StdOut.printf("%s %s %d expanded %.3f s%n", name, moves, result.expanded(),
+                          result.seconds());
+        });
+    }
+}
@@ -6,12 +6,18 @@
  **************************************************************************** */
 
 import java.util.Arrays;
-import java.util.LinkedList;
 
 public class Board {
-    private int n;
-    private int[][] tiles;
-    private static final int[][] DIRS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    // boards up to 4-by-4 keep one tile in every 4 bits of a long, bigger ones use cells
+    static final int MAX_PACKED = 4;
+    private static final long NIBBLE = 0xF;
+
+    private final int n;
+    private final long packed;
+    private final short[] cells;
+    // the index row * n + col of the blank square
+    private final int blank;
+    // both are worked out on first use, or taken from the parent board after a slide
     private int hamming = -1;
     private int manhattan = -1;
 
@@ -22,10 +28,49 @@ public class Board {
      */
     public Board(int[][] tiles) {
         if (tiles == null) throw new IllegalArgumentException("argument cannot be null");
-        this.n = tiles[0].length;
-        // be careful on the implementation of the copy, make sure it does not use a lot
-        // of memory
-        this.tiles = copyArr(tiles);
+        this.n = tiles.length;
+        int size = n * n;
+        long bits = 0;
+        short[] values = n > MAX_PACKED ? new short[size] : null;
+        int zero = -1;
+        for (int i = 0; i < n; i++) {
+            if (tiles[i] == null || tiles[i].length != n) {
+                throw new IllegalArgumentException("the tiles have to be a square");
+            }
+            for (int j = 0; j < n; j++) {
+                int tile = tiles[i][j];
+                if (tile < 0 || tile >= size) {
+                    throw new IllegalArgumentException("tile out of range: " + tile);
+                }
+                int index = (i * n) + j;
+                if (tile == 0) zero = index;
+                if (values == null) bits |= (long) tile << (4 * index);
+                else values[index] = (short) tile;
+            }
+        }
+        if (zero < 0) throw new IllegalArgumentException("the board has no blank square");
+        this.packed = bits;
+        this.cells = values;
+        this.blank = zero;
+    }
+
+    /**
+     * a board made by a slide, shares nothing with its parent but the dimension
+     *
+     * @param n         the board dimension
+     * @param packed    the tiles of a board up to 4-by-4
+     * @param cells     the tiles of a bigger board, null otherwise
+     * @param blank     the index of the blank square
+     * @param hamming   the hamming distance, -1 if not known
+     * @param manhattan the manhattan distance, -1 if not known
+     */
+    private Board(int n, long packed, short[] cells, int blank, int hamming, int manhattan) {
+        this.n = n;
+        this.packed = packed;
+        this.cells = cells;
+        this.blank = blank;
+        this.hamming = hamming;
+        this.manhattan = manhattan;
     }
 
     /**
@@ -39,7 +84,7 @@ public class Board {
         sb.append("\n");
         for (int i = 0; i < dimension(); i++) {
             for (int j = 0; j < dimension(); j++) {
-                sb.append(this.tiles[i][j]);
+                sb.append(tileAt((i * n) + j));
                 sb.append("  ");
             }
             sb.append("\n");
@@ -63,15 +108,10 @@ public class Board {
     public int hamming() {
         if (hamming != -1) return hamming;
         int ham = 0;
-        // definition of hamming
-        for (int i = 0; i < dimension(); i++) {
-            for (int j = 0; j < dimension(); j++) {
-                if (this.tiles[i][j] != findGoal(i, j)) {
-                    ham++;
-                }
-            }
+        for (int index = 0; index < n * n; index++) {
+            int tile = tileAt(index);
+            if (tile != 0 && tile != index + 1) ham++;
         }
-        if (this.tiles[dimension() - 1][dimension() - 1] != 0) ham--;
         this.hamming = ham;
         return this.hamming;
     }
@@ -84,18 +124,67 @@ public class Board {
         if (manhattan != -1) return manhattan;
         int sum = 0;
         // uses the manhattan formula for two points
-        for (int i = 0; i < dimension(); i++) {
-            for (int j = 0; j < dimension(); j++) {
-                if (this.tiles[i][j] != findGoal(i, j) && this.tiles[i][j] != 0) {
-                    int[] coords = findCoordinates(this.tiles[i][j]);
-                    sum += Math.abs(i - coords[0]) + Math.abs(j - coords[1]);
-                }
-            }
+        for (int index = 0; index < n * n; index++) {
+            int tile = tileAt(index);
+            if (tile != 0) sum += distance(tile, index);
         }
         this.manhattan = sum;
         return this.manhattan;
     }
 
+    /**
+     * the extra moves the tiles need on top of manhattan() because they are in their
+     * goal row or column but in the wrong order
+     *
+     * @return twice the number of tiles that have to leave their line
+     */
+    int linearConflict() {
+        int[] line = new int[n];
+        int[] scratch = new int[n];
+        int sum = 0;
+        for (int k = 0; k < n; k++) {
+            int inRow = 0;
+            int inCol = 0;
+            for (int i = 0; i < n; i++) {
+                int tile = tileAt((k * n) + i);
+                if (tile != 0 && (tile - 1) / n == k) line[inRow++] = (tile - 1) % n;
+            }
+            sum += lineConflict(line, inRow, scratch);
+            for (int i = 0; i < n; i++) {
+                int tile = tileAt((i * n) + k);
+                if (tile != 0 && (tile - 1) % n == k) line[inCol++] = (tile - 1) / n;
+            }
+            sum += lineConflict(line, inCol, scratch);
+        }
+        return sum;
+    }
+
+    /**
+     * the linear conflict of one row or column: every tile that is not part of the
+     * longest run in the right order has to leave the line and come back
+     *
+     * @param goals      the goal positions along the line of the tiles that belong on
+     *                   it, in the order they are on the line
+     * @param count      the number of such tiles
+     * @param increasing scratch space at least count long
+     * @return twice the number of tiles that have to leave the line
+     */
+    static int lineConflict(int[] goals, int count, int[] increasing) {
+        if (count < 2) return 0;
+        // longest increasing run, the lines are at most n long
+        int longest = 0;
+        for (int i = 0; i < count; i++) {
+            increasing[i] = 1;
+            for (int j = 0; j < i; j++) {
+                if (goals[j] < goals[i] && increasing[j] + 1 > increasing[i]) {
+                    increasing[i] = increasing[j] + 1;
+                }
+            }
+            if (increasing[i] > longest) longest = increasing[i];
+        }
+        return 2 * (count - longest);
+    }
+
     /**
      * is this board the goal board
      *
@@ -103,15 +192,8 @@ public class Board {
      * otherwise
      */
     public boolean isGoal() {
-        boolean isEqual = true;
-        for (int i = 0; i < dimension(); i++) {
-            for (int j = 0; j < dimension(); j++) {
-                if (this.tiles[i][j] != findGoal(i, j)) {
-                    isEqual = false;
-                }
-            }
-        }
-        return isEqual;
+        // with every tile in place the blank is in place too
+        return hamming() == 0;
     }
 
     /**
@@ -122,14 +204,33 @@ public class Board {
      */
     @Override
     public boolean equals(Object y) {
+        if (y == this) return true;
         if (y == null) return false;
         if (this.getClass() != y.getClass()) return false;
         Board that = (Board) y;
-        if (this.dimension() != that.dimension()) return false;
-        for (int i = 0; i < this.dimension(); i++) {
-            if (!Arrays.equals(this.tiles[i], that.tiles[i])) return false;
-        }
-        return true;
+        return this.n == that.n && this.blank == that.blank && this.packed == that.packed
+                && Arrays.equals(this.cells, that.cells);
+    }
+
+    /**
+     * hash code that agrees with equals
+     *
+     * @return the hash code of the tiles
+     */
+    @Override
+    public int hashCode() {
+        if (cells != null) return Arrays.hashCode(cells);
+        return Long.hashCode(packed * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * the tiles of a board up to 4-by-4 in one long, two such boards of the same size
+     * are equal when their longs are
+     *
+     * @return tile i in bits 4i to 4i + 3, 0 for bigger boards
+     */
+    long packed() {
+        return this.packed;
     }
 
     /**
@@ -138,25 +239,27 @@ public class Board {
      * @return the neighboring boards
      */
     public Iterable<Board> neighbors() {
-        LinkedList<Board> neighbors = new LinkedList<Board>();
-        for (int i = 0; i < dimension(); i++) {
-            for (int j = 0; j < dimension(); j++) {
-                if (this.tiles[i][j] == 0) {
-                    for (int[] dir : DIRS) {
-                        // calculates neighboring points
-                        int x = dir[0] + i;
-                        int y = dir[1] + j;
-                        if (x < dimension() && x >= 0 && y < dimension() && y >= 0) {
-                            int[][] tempTiles = copyArr(this.tiles);
-                            exch(tempTiles, i, j, x, y);
-                            neighbors.add(new Board(tempTiles));
-                        }
-                    }
-                    return neighbors;
-                }
-            }
-        }
-        return neighbors;
+        Board[] neighbors = new Board[4];
+        int count = neighbors(neighbors);
+        return Arrays.asList(neighbors).subList(0, count);
+    }
+
+    /**
+     * writes the neighboring boards into the given array so a search can reuse it for
+     * every board it expands
+     *
+     * @param out where the neighbors go, at least 4 long
+     * @return the number of neighbors written
+     */
+    int neighbors(Board[] out) {
+        int row = blank / n;
+        int col = blank % n;
+        int count = 0;
+        if (col < n - 1) out[count++] = slide(blank + 1);
+        if (col > 0) out[count++] = slide(blank - 1);
+        if (row < n - 1) out[count++] = slide(blank + n);
+        if (row > 0) out[count++] = slide(blank - n);
+        return count;
     }
 
     /**
@@ -165,79 +268,143 @@ public class Board {
      * @return the board result after exchange
      */
     public Board twin() {
-        // this method is needed for the solver later on
-        for (int i = 0; i < dimension(); i++) {
-            for (int j = 0; j < dimension(); j++) {
-                if (this.tiles[i][j] != 0) {
-                    for (int[] dir : DIRS) {
-                        // similar to the neighbors method
-                        int x = dir[0] + i;
-                        int y = dir[1] + j;
-                        if (x < dimension() && x >= 0 && y < dimension() && y >= 0
-                                && this.tiles[x][y] != 0) {
-                            int[][] tempTiles = copyArr(this.tiles);
-                            exch(tempTiles, i, j, x, y);
-                            return new Board(tempTiles);
-                        }
-                    }
-                }
-            }
-        }
-        return null;
+        if (n < 2) return null;
+        // the first tile and the tile to its right, or below it if that is the blank
+        int a = blank == 0 ? 1 : 0;
+        int b = (a % n < n - 1 && a + 1 != blank) ? a + 1 : a + n;
+        return swap(a, b, blank, -1, -1);
     }
 
+    /**
+     * the tile on a square
+     *
+     * @param index the square as row * n + col
+     * @return the tile, 0 for the blank square
+     */
+    int tileAt(int index) {
+        if (cells != null) return cells[index];
+        return (int) ((packed >>> (4 * index)) & NIBBLE);
+    }
 
     /**
-     * finds the appropriate cols for given number
+     * a board from its tiles in row major order
      *
-     * @param num the number where coordinates will be calculated
-     * @return the correct coordinates for the given number
+     * @param n     the board dimension
+     * @param tiles tiles[row * n + col] is the tile on that square
+     * @return the board
      */
-    private int[] findCoordinates(int num) {
-        int x = (num - 1) / dimension();
-        int y = (num - 1) % dimension();
-        return new int[]{x, y};
+    static Board fromSquares(int n, int[] tiles) {
+        int[][] rows = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(tiles, i * n, rows[i], 0, n);
+        }
+        return new Board(rows);
     }
 
     /**
-     * finds the goal value for the respective row and col
+     * the square of the blank
      *
-     * @param row the input row of tile
-     * @param col the input col of tile
-     * @return the appropriate value for that tile
+     * @return the blank square as row * n + col
      */
-    private int findGoal(int row, int col) {
-        return ((row * dimension()) + col + 1) % (dimension() * dimension());
+    int blankSquare() {
+        return this.blank;
     }
 
     /**
-     * exchanges a pair of tiles from the given 2d array
+     * checks if the goal board can be reached: every slide changes the number of
+     * inversions by an even number on odd boards, and on even boards together with
+     * the row of the blank, so their parity has to match the goal
      *
-     * @param arr   the given array where exchange happens
-     * @param row   first tile row value
-     * @param col   first tile col value
-     * @param exRow second tile row value
-     * @param exCol second tile col value
+     * @return true if the board can be solved
      */
-    private void exch(int[][] arr, int row, int col, int exRow, int exCol) {
-        int temp = arr[row][col];
-        arr[row][col] = arr[exRow][exCol];
-        arr[exRow][exCol] = temp;
+    boolean isSolvable() {
+        int[] order = new int[(n * n) - 1];
+        int count = 0;
+        for (int index = 0; index < n * n; index++) {
+            if (index != blank) order[count++] = tileAt(index);
+        }
+        long inversions = inversions(order, new int[order.length], 0, order.length);
+        if (n % 2 == 1) return inversions % 2 == 0;
+        return (inversions + (blank / n)) % 2 == (n - 1) % 2;
     }
 
     /**
-     * copies a 2d array
+     * sorts a[lo..hi) by merge sort and counts the pairs it found out of order
      *
-     * @param arr array to be copied
-     * @return copied array
+     * @param a   the tiles
+     * @param aux scratch space as long as a
+     * @param lo  the first index
+     * @param hi  one past the last index
+     * @return the number of inversions
      */
-    private int[][] copyArr(int[][] arr) {
-        int[][] tempTiles = new int[dimension()][dimension()];
-        for (int m = 0; m < dimension(); m++)
-            for (int n = 0; n < dimension(); n++) {
-                tempTiles[m][n] = arr[m][n];
+    private static long inversions(int[] a, int[] aux, int lo, int hi) {
+        if (hi - lo < 2) return 0;
+        int mid = (lo + hi) >>> 1;
+        long count = inversions(a, aux, lo, mid) + inversions(a, aux, mid, hi);
+        System.arraycopy(a, lo, aux, lo, hi - lo);
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (i == mid) a[k] = aux[j++];
+            else if (j == hi || aux[i] <= aux[j]) a[k] = aux[i++];
+            else {
+                // every tile left in the first half is bigger than aux[j]
+                count += mid - i;
+                a[k] = aux[j++];
             }
-        return tempTiles;
+        }
+        return count;
+    }
+
+    /**
+     * moves the tile on a square next to the blank into the blank, only that tile
+     * changes its distance so the new board starts from the distances of this one
+     *
+     * @param index the square of the tile
+     * @return the board after the slide
+     */
+    Board slide(int index) {
+        int tile = tileAt(index);
+        int ham = hamming() - (tile != index + 1 ? 1 : 0) + (tile != blank + 1 ? 1 : 0);
+        int man = manhattan() - distance(tile, index) + distance(tile, blank);
+        return swap(blank, index, index, ham, man);
+    }
+
+    /**
+     * a copy of this board with two squares exchanged
+     *
+     * @param a         the first square
+     * @param b         the second square
+     * @param newBlank  the blank square of the copy
+     * @param hamming   the hamming distance of the copy, -1 if not known
+     * @param manhattan the manhattan distance of the copy, -1 if not known
+     * @return the new board
+     */
+    private Board swap(int a, int b, int newBlank, int hamming, int manhattan) {
+        if (cells == null) {
+            long tileA = (packed >>> (4 * a)) & NIBBLE;
+            long tileB = (packed >>> (4 * b)) & NIBBLE;
+            long diff = tileA ^ tileB;
+            long bits = packed ^ (diff << (4 * a)) ^ (diff << (4 * b));
+            return new Board(n, bits, null, newBlank, hamming, manhattan);
+        }
+        short[] values = cells.clone();
+        short temp = values[a];
+        values[a] = values[b];
+        values[b] = temp;
+        return new Board(n, 0, values, newBlank, hamming, manhattan);
+    }
+
+    /**
+     * the manhattan distance of a tile from its goal square
+     *
+     * @param tile  the tile
+     * @param index the square the tile is on
+     * @return the number of moves between the square and the goal square
+     */
+    private int distance(int tile, int index) {
+        int goal = tile - 1;
+        return Math.abs((index / n) - (goal / n)) + Math.abs((index % n) - (goal % n));
     }
 
     /**
@@ -0,0 +1,82 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    The closed set of the Solver. Boards up to 4-by-4 are kept
+ *                  as their packed long in an open addressing table with
+ *                  linear probing, bigger boards go to a HashSet
+ **************************************************************************** */
+
+import java.util.HashSet;
+
+final class BoardSet {
+    // a slot holds the packed board + 1 so that 0 can mean empty
+    private long[] slots = new long[1 << 10];
+    private int size;
+    private final HashSet<Board> large = new HashSet<Board>();
+
+    /**
+     * adds a board
+     *
+     * @param board the board
+     * @return true if it was not in the set yet
+     */
+    boolean add(Board board) {
+        if (board.dimension() > Board.MAX_PACKED) return large.add(board);
+        if (2 * (size + 1) > slots.length) resize();
+        if (!insert(slots, board.packed() + 1)) return false;
+        size++;
+        return true;
+    }
+
+    /**
+     * checks if a board was added
+     *
+     * @param board the board
+     * @return true if it is in the set
+     */
+    boolean contains(Board board) {
+        if (board.dimension() > Board.MAX_PACKED) return large.contains(board);
+        long key = board.packed() + 1;
+        int mask = slots.length - 1;
+        for (int i = hash(key) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == key) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of boards in the set
+     */
+    int size() {
+        return size + large.size();
+    }
+
+    private static boolean insert(long[] table, long key) {
+        int mask = table.length - 1;
+        int i = hash(key) & mask;
+        while (table[i] != 0) {
+            if (table[i] == key) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        return true;
+    }
+
+    // doubles the table and puts every key back
+    private void resize() {
+        long[] table = new long[2 * slots.length];
+        for (long key : slots) {
+            if (key != 0) insert(table, key);
+        }
+        slots = table;
+    }
+
+    // the finalizer of murmur3, spreads the tiles of the low squares over every bit
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
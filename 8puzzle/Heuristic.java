@@ -0,0 +1,23 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    A lower bound on the number of moves a board needs to reach
+ *                  the goal, the Solver adds it to the moves made so far to
+ *                  pick the next board to look at
+ **************************************************************************** */
+
+public interface Heuristic {
+    // the sum of the manhattan distances of the tiles
+    Heuristic MANHATTAN = Board::manhattan;
+    // manhattan plus 2 moves for every tile that has to step out of its goal row or
+    // column to let another tile of that line pass
+    Heuristic LINEAR_CONFLICT = board -> board.manhattan() + board.linearConflict();
+
+    /**
+     * estimates the moves left, never more than the real number so the solutions
+     * stay the shortest ones
+     *
+     * @param board the board
+     * @return the estimate
+     */
+    int estimate(Board board);
+}
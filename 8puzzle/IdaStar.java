@@ -0,0 +1,387 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Iterative deepening A* for the Solver: a depth first search
+ *                  bounded by moves + heuristic that raises the bound to the
+ *                  smallest value that went over it until the goal is found.
+ *                  It slides the tiles of one array back and forth, so it only
+ *                  needs memory for the current path. The built in heuristics
+ *                  are updated as the tiles move, any other one is given a new
+ *                  Board at every step. ParallelIdaStar runs many of them on the
+ *                  subtrees below a fixed depth.
+ **************************************************************************** */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class IdaStar {
+    // the clock is read once every this many expansions
+    private static final int CLOCK_INTERVAL = 4096;
+
+    private final int n;
+    private final int[] tiles;
+    // positions[tile] is the square of the tile
+    private final int[] positions;
+    private int blank;
+    // the blank squares along the current path, path[g] is the square after move g
+    private int[] path = new int[64];
+    private int manhattan;
+    // linear conflicts of every row and column, already doubled
+    private final int[] rowConflict;
+    private final int[] colConflict;
+    private int conflicts;
+    // scratch for the linear conflict of one line
+    private final int[] line;
+    private final int[] increasing;
+    // how the estimate is made: linear conflict on top of manhattan, the entries of a
+    // pattern database, or a heuristic of the caller
+    private final boolean linear;
+    private final PatternDatabase database;
+    private final int[] entries;
+    private int entrySum;
+    private final Heuristic other;
+    private int nextBound = Integer.MAX_VALUE;
+    private int moves;
+    private long expanded;
+    // the budget of the search, it gives up when either one runs out
+    private final long nodeLimit;
+    private final long deadline;
+    private boolean gaveUp;
+    private int iterations;
+    // called every progressInterval expansions or so, null for never
+    private Runnable progress;
+    private long progressInterval;
+    private long nextProgress;
+    // set when searches share a budget: any of them raises stop to end all of them
+    // and they add their expansions to the shared count
+    private AtomicBoolean stop;
+    private AtomicLong sharedExpanded;
+    // when not null, search() adds the paths that reach this depth and goes no deeper
+    private ArrayList<int[]> collected;
+    private int collectDepth;
+
+    /**
+     * prepares the search from a board
+     *
+     * @param initial   the board to solve, has to be solvable
+     * @param heuristic the estimate of the moves left
+     * @param nodeLimit the most boards to expand
+     * @param deadline  the System.nanoTime() to give up at, Long.MAX_VALUE for never
+     */
+    IdaStar(Board initial, Heuristic heuristic, long nodeLimit, long deadline) {
+        this.n = initial.dimension();
+        this.nodeLimit = nodeLimit;
+        this.deadline = deadline;
+        this.tiles = new int[n * n];
+        this.positions = new int[n * n];
+        for (int index = 0; index < n * n; index++) {
+            tiles[index] = initial.tileAt(index);
+            positions[tiles[index]] = index;
+        }
+        this.linear = heuristic == Heuristic.LINEAR_CONFLICT;
+        if (heuristic instanceof PatternDatabase
+                && ((PatternDatabase) heuristic).dimension() == n) {
+            this.database = (PatternDatabase) heuristic;
+            this.entries = new int[database.patterns()];
+            for (int p = 0; p < entries.length; p++) {
+                entries[p] = database.lookup(p, positions);
+                entrySum += entries[p];
+            }
+        }
+        else {
+            this.database = null;
+            this.entries = null;
+        }
+        boolean builtIn = linear || database != null || heuristic == Heuristic.MANHATTAN;
+        this.other = builtIn ? null : heuristic;
+        this.blank = initial.blankSquare();
+        this.manhattan = initial.manhattan();
+        this.rowConflict = new int[n];
+        this.colConflict = new int[n];
+        this.line = new int[n];
+        this.increasing = new int[n];
+        for (int k = 0; k < n; k++) {
+            rowConflict[k] = lineConflict(k, true);
+            colConflict[k] = lineConflict(k, false);
+            conflicts += rowConflict[k] + colConflict[k];
+        }
+    }
+
+    /**
+     * runs the search until it finds the goal or runs out of its budget
+     *
+     * @return the number of moves of an optimal solution, -1 if it gave up
+     */
+    int solve() {
+        int bound = estimate();
+        nextBound = Integer.MAX_VALUE;
+        iterations++;
+        while (!search(0, bound, -1)) {
+            if (gaveUp) return -1;
+            iterations++;
+            bound = nextBound;
+            nextBound = Integer.MAX_VALUE;
+        }
+        return moves;
+    }
+
+    /**
+     * reports the progress of solve(), it is checked with the clock so the interval is
+     * rounded up to a multiple of CLOCK_INTERVAL
+     *
+     * @param interval the expansions between two calls
+     * @param callback called on the searching thread
+     */
+    void progress(long interval, Runnable callback) {
+        this.progress = callback;
+        this.progressInterval = interval;
+        this.nextProgress = expanded + interval;
+    }
+
+    /**
+     * @return the number of bounds solve() searched so far
+     */
+    int iterations() {
+        return iterations;
+    }
+
+    /**
+     * makes this search one of many that share a budget
+     *
+     * @param stop     raised by any search to end all of them
+     * @param expanded the expansions of all of them
+     */
+    void share(AtomicBoolean stop, AtomicLong expanded) {
+        this.stop = stop;
+        this.sharedExpanded = expanded;
+    }
+
+    /**
+     * slides the blank along a path from the initial board
+     *
+     * @param squares the blank squares of the path
+     */
+    void replay(int[] squares) {
+        if (squares.length >= path.length) path = Arrays.copyOf(path, 2 * squares.length);
+        for (int g = 0; g < squares.length; g++) {
+            move(squares[g]);
+            path[g] = squares[g];
+        }
+    }
+
+    /**
+     * searches like search() but stops at a depth and collects the paths that reach it
+     *
+     * @param depth the depth of the paths
+     * @param bound the bound of the iteration
+     * @param out   where the paths go
+     * @return true if the goal was found above the depth, its distance is in moves
+     */
+    boolean collect(int depth, int bound, ArrayList<int[]> out) {
+        collected = out;
+        collectDepth = depth;
+        nextBound = Integer.MAX_VALUE;
+        try {
+            return search(0, bound, -1);
+        }
+        finally {
+            collected = null;
+        }
+    }
+
+    /**
+     * the blank squares of the solution found by solve()
+     *
+     * @return path[g] is the square of the blank after move g
+     */
+    int[] path() {
+        return path;
+    }
+
+    /**
+     * @return the length of the solution found
+     */
+    int moves() {
+        return moves;
+    }
+
+    /**
+     * the number of boards search() was called on
+     *
+     * @return the number of expanded boards
+     */
+    long expanded() {
+        return expanded;
+    }
+
+    /**
+     * @return true if the budget ran out or another search raised stop
+     */
+    boolean gaveUp() {
+        return gaveUp;
+    }
+
+    /**
+     * the smallest moves + heuristic that went over the bound, reset by every solve()
+     *
+     * @return the bound of the next iteration
+     */
+    int nextBound() {
+        return nextBound;
+    }
+
+    /**
+     * searches below the current board without going back to where it came from
+     *
+     * @param g     the number of moves made so far
+     * @param bound the largest moves + heuristic allowed in this iteration
+     * @param prev  the square the blank came from, -1 at the start
+     * @return true if the goal was found, its distance is in moves
+     */
+    boolean search(int g, int bound, int prev) {
+        if (gaveUp) return false;
+        if (expanded == nodeLimit) {
+            gaveUp = true;
+            return false;
+        }
+        expanded++;
+        if (expanded % CLOCK_INTERVAL == 0 && outOfBudget()) {
+            gaveUp = true;
+            return false;
+        }
+        int h = estimate();
+        if (g + h > bound) {
+            if (g + h < nextBound) nextBound = g + h;
+            return false;
+        }
+        if (manhattan == 0) {
+            moves = g;
+            return true;
+        }
+        if (collected != null && g == collectDepth) {
+            collected.add(Arrays.copyOf(path, g));
+            return false;
+        }
+        if (g == path.length) path = Arrays.copyOf(path, 2 * g);
+        int row = blank / n;
+        int col = blank % n;
+        int from = blank;
+        return (col < n - 1 && from + 1 != prev && step(g, bound, from, from + 1))
+                || (col > 0 && from - 1 != prev && step(g, bound, from, from - 1))
+                || (row < n - 1 && from + n != prev && step(g, bound, from, from + n))
+                || (row > 0 && from - n != prev && step(g, bound, from, from - n));
+    }
+
+    /**
+     * adds the expansions not yet added to the shared count
+     */
+    void flushExpanded() {
+        if (sharedExpanded != null) sharedExpanded.addAndGet(expanded % CLOCK_INTERVAL);
+    }
+
+    // checked every CLOCK_INTERVAL expansions
+    private boolean outOfBudget() {
+        if (progress != null && expanded >= nextProgress) {
+            nextProgress = expanded + progressInterval;
+            progress.run();
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) return true;
+        if (stop == null) return false;
+        if (sharedExpanded.addAndGet(CLOCK_INTERVAL) >= nodeLimit) stop.set(true);
+        return stop.get();
+    }
+
+    /**
+     * the estimate of the current board
+     *
+     * @return the moves left at least
+     */
+    int estimate() {
+        if (database != null) return entrySum;
+        if (other != null) return other.estimate(Board.fromSquares(n, tiles));
+        return linear ? manhattan + conflicts : manhattan;
+    }
+
+    /**
+     * slides the tile on a square into the blank, searches and slides it back
+     *
+     * @param g      the number of moves made so far
+     * @param bound  the bound of the iteration
+     * @param from   the blank square before the slide
+     * @param square the square of the tile
+     * @return true if the goal was found below
+     */
+    private boolean step(int g, int bound, int from, int square) {
+        move(square);
+        path[g] = square;
+        boolean found = search(g + 1, bound, from);
+        move(from);
+        return found;
+    }
+
+    /**
+     * slides the tile on a square next to the blank into the blank and updates the
+     * manhattan distance and the estimate that only depends on that tile and the two
+     * lines it moved between
+     *
+     * @param square the square of the tile
+     */
+    private void move(int square) {
+        int tile = tiles[square];
+        int to = blank;
+        tiles[to] = tile;
+        tiles[square] = 0;
+        positions[tile] = to;
+        positions[0] = square;
+        blank = square;
+        int goal = tile - 1;
+        manhattan += distance(goal, to) - distance(goal, square);
+        if (database != null) {
+            int p = database.patternOf(tile);
+            int entry = database.lookup(p, positions);
+            entrySum += entry - entries[p];
+            entries[p] = entry;
+        }
+        if (!linear) return;
+        if (square / n == to / n) {
+            // the tile changed column, its row keeps the same order
+            updateConflict(square % n, false);
+            updateConflict(to % n, false);
+        }
+        else {
+            updateConflict(square / n, true);
+            updateConflict(to / n, true);
+        }
+    }
+
+    private void updateConflict(int k, boolean row) {
+        int[] conflict = row ? rowConflict : colConflict;
+        int value = lineConflict(k, row);
+        conflicts += value - conflict[k];
+        conflict[k] = value;
+    }
+
+    /**
+     * the linear conflict of a row or column
+     *
+     * @param k   the row or column
+     * @param row true for a row, false for a column
+     * @return twice the number of tiles that have to leave the line
+     */
+    private int lineConflict(int k, boolean row) {
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int tile = row ? tiles[(k * n) + i] : tiles[(i * n) + k];
+            if (tile == 0) continue;
+            int goal = tile - 1;
+            if (row && goal / n == k) line[count++] = goal % n;
+            else if (!row && goal % n == k) line[count++] = goal / n;
+        }
+        return Board.lineConflict(line, count, increasing);
+    }
+
+    private int distance(int goal, int index) {
+        return Math.abs((index / n) - (goal / n)) + Math.abs((index % n) - (goal % n));
+    }
+}
@@ -0,0 +1,188 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Iterative deepening A* on a fork join pool. Every iteration
+ *                  first walks the tree down to a depth that leaves a few
+ *                  subtrees for every thread, then searches the subtrees as
+ *                  tasks that split their range in halves so idle threads steal
+ *                  the rest. Any solution found within the bound of an
+ *                  iteration is a shortest one, so the first task to find one
+ *                  stops all the others.
+ **************************************************************************** */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class ParallelIdaStar {
+    // subtrees searched in every iteration for every thread of the pool, enough for
+    // the threads that get the small ones to steal from the others
+    private static final int TASKS_PER_THREAD = 16;
+
+    private final Board initial;
+    private final Heuristic heuristic;
+    private final long nodeLimit;
+    private final long deadline;
+    private final ForkJoinPool pool;
+    // raised by the task that finds the goal or runs out of the budget
+    private final AtomicBoolean stop = new AtomicBoolean();
+    private final AtomicLong expanded = new AtomicLong();
+    // the blank squares of the first solution found
+    private final AtomicReference<int[]> solution = new AtomicReference<int[]>();
+    private int iterations;
+    // called on the calling thread after every iteration, null for never
+    private Runnable progress;
+
+    /**
+     * prepares the search from a board
+     *
+     * @param initial   the board to solve, has to be solvable
+     * @param heuristic the estimate of the moves left
+     * @param nodeLimit the most boards to expand over all the threads
+     * @param deadline  the System.nanoTime() to give up at, Long.MAX_VALUE for never
+     * @param pool      the pool the subtrees are searched on
+     */
+    ParallelIdaStar(Board initial, Heuristic heuristic, long nodeLimit, long deadline,
+                    ForkJoinPool pool) {
+        this.initial = initial;
+        this.heuristic = heuristic;
+        this.nodeLimit = nodeLimit;
+        this.deadline = deadline;
+        this.pool = pool;
+    }
+
+    /**
+     * runs the search until it finds the goal or runs out of its budget
+     *
+     * @return the number of moves of an optimal solution, -1 if it gave up
+     */
+    int solve() {
+        IdaStar root = search();
+        int target = pool.getParallelism() * TASKS_PER_THREAD;
+        int bound = root.estimate();
+        ArrayList<int[]> prefixes = new ArrayList<int[]>();
+        try {
+            while (true) {
+                iterations++;
+                // deepen the split until there are enough subtrees, the tree grows
+                // about twice as wide with every move so the walks above cost little,
+                // no subtrees left means the walk already searched the whole iteration
+                int depth = 1;
+                prefixes.clear();
+                boolean found = root.collect(depth, bound, prefixes);
+                while (!found && !root.gaveUp() && !prefixes.isEmpty()
+                        && prefixes.size() < target) {
+                    prefixes.clear();
+                    found = root.collect(++depth, bound, prefixes);
+                }
+                if (found) {
+                    solution.set(Arrays.copyOf(root.path(), root.moves()));
+                    return root.moves();
+                }
+                if (root.gaveUp()) return -1;
+                int next = root.nextBound();
+                if (!prefixes.isEmpty()) {
+                    next = Math.min(next, pool.invoke(
+                            new Subtrees(prefixes, 0, prefixes.size(), bound)));
+                }
+                if (solution.get() != null) return solution.get().length;
+                if (stop.get()) return -1;
+                bound = next;
+                if (progress != null) progress.run();
+            }
+        }
+        finally {
+            root.flushExpanded();
+        }
+    }
+
+    /**
+     * reports the progress of solve() after every iteration
+     *
+     * @param callback called on the thread of solve()
+     */
+    void progress(Runnable callback) {
+        this.progress = callback;
+    }
+
+    /**
+     * @return the number of bounds solve() searched so far
+     */
+    int iterations() {
+        return iterations;
+    }
+
+    /**
+     * the blank squares of the solution found by solve()
+     *
+     * @return path[g] is the square of the blank after move g
+     */
+    int[] path() {
+        return solution.get();
+    }
+
+    /**
+     * the number of boards all the threads expanded
+     *
+     * @return the number of expanded boards
+     */
+    long expanded() {
+        return expanded.get();
+    }
+
+    // a search from the initial board that shares the budget of this one
+    private IdaStar search() {
+        IdaStar search = new IdaStar(initial, heuristic, nodeLimit, deadline);
+        search.share(stop, expanded);
+        return search;
+    }
+
+    /**
+     * searches the subtrees below a range of paths
+     */
+    private class Subtrees extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<int[]> prefixes;
+        private final int lo;
+        private final int hi;
+        private final int bound;
+
+        Subtrees(ArrayList<int[]> prefixes, int lo, int hi, int bound) {
+            this.prefixes = prefixes;
+            this.lo = lo;
+            this.hi = hi;
+            this.bound = bound;
+        }
+
+        /**
+         * @return the smallest moves + heuristic that went over the bound
+         */
+        @Override
+        protected Integer compute() {
+            if (hi - lo == 1) return searchBelow(prefixes.get(lo));
+            int mid = (lo + hi) >>> 1;
+            Subtrees right = new Subtrees(prefixes, mid, hi, bound);
+            Subtrees left = new Subtrees(prefixes, lo, mid, bound);
+            right.fork();
+            int next = left.compute();
+            return Math.min(next, right.join());
+        }
+
+        private int searchBelow(int[] prefix) {
+            if (stop.get()) return Integer.MAX_VALUE;
+            IdaStar search = search();
+            search.replay(prefix);
+            int g = prefix.length;
+            int prev = g > 1 ? prefix[g - 2] : initial.blankSquare();
+            boolean found = search.search(g, bound, prev);
+            search.flushExpanded();
+            if (found) solution.compareAndSet(null, Arrays.copyOf(search.path(), search.moves()));
+            if (found || search.gaveUp()) stop.set(true);
+            return search.nextBound();
+        }
+    }
+}
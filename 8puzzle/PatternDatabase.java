@@ -0,0 +1,465 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Disjoint additive pattern databases: the tiles are split
+ *                  into groups and for every placement of a group the table
+ *                  keeps the fewest moves of that group's tiles needed to put
+ *                  them in place. Only moves of a group's own tiles are
+ *                  counted, so the values of the groups can be added up.
+ *                  The tables are built by a breadth first search backwards
+ *                  from the goal and can be saved and memory-mapped later.
+ *                  They are only read after that, so threads can share them.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+public class PatternDatabase implements Heuristic {
+    // "PDB1" read as a little endian int
+    private static final int MAGIC = 0x31424450;
+    // the squares of a board are kept in the bits of a long
+    private static final int MAX_N = 8;
+    private static final int UNSEEN = 0xFF;
+
+    private final int n;
+    private final int[][] patterns;
+    // the pattern of every tile, -1 for the blank
+    private final int[] patternOf;
+    // every table back to back, an entry per placement of the tiles of its pattern
+    private final ByteBuffer tables;
+    private final int[] offsets;
+
+    /**
+     * builds the databases with the default groups: 4-4 for the 8-puzzle and 6-6-3 for
+     * the 15-puzzle
+     *
+     * @param n the board dimension, 3 or 4
+     */
+    public PatternDatabase(int n) {
+        this(n, defaultPatterns(n));
+    }
+
+    /**
+     * builds the databases for the given groups of tiles
+     *
+     * @param n        the board dimension
+     * @param patterns the groups, every tile from 1 to n * n - 1 in exactly one of them
+     */
+    public PatternDatabase(int n, int[][] patterns) {
+        this.n = n;
+        this.patterns = copyOf(patterns);
+        this.patternOf = validate(n, this.patterns);
+        this.offsets = offsets(n, this.patterns);
+        byte[] all = new byte[offsets[this.patterns.length]];
+        for (int p = 0; p < this.patterns.length; p++) {
+            build(this.patterns[p], all, offsets[p]);
+        }
+        this.tables = ByteBuffer.wrap(all);
+    }
+
+    private PatternDatabase(int n, int[][] patterns, ByteBuffer tables) {
+        this.n = n;
+        this.patterns = patterns;
+        this.patternOf = validate(n, patterns);
+        this.offsets = offsets(n, patterns);
+        if (tables.capacity() != offsets[patterns.length]) {
+            throw new IllegalArgumentException("the tables do not match their patterns");
+        }
+        this.tables = tables;
+    }
+
+    /**
+     * maps databases saved with save() into memory, the tables are read from the file
+     * as they are used
+     *
+     * @param filename the file
+     * @return the databases
+     */
+    public static PatternDatabase load(String filename) {
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+            FileChannel channel = file.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("not a pattern database: " + filename);
+            }
+            int n = header.getInt(4);
+            int count = header.getInt(8);
+            if (n < 2 || n > MAX_N || count < 1 || count >= n * n) {
+                throw new IllegalArgumentException("not a pattern database: " + filename);
+            }
+            long position = 12;
+            int[][] patterns = new int[count][];
+            for (int p = 0; p < count; p++) {
+                ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, size, position);
+                int k = size.getInt(0);
+                if (k < 1 || k >= n * n) {
+                    throw new IllegalArgumentException("not a pattern database: " + filename);
+                }
+                ByteBuffer tiles = ByteBuffer.allocate(4 * k).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, tiles, position + 4);
+                patterns[p] = new int[k];
+                for (int i = 0; i < k; i++) {
+                    patterns[p][i] = tiles.getInt(4 * i);
+                }
+                position += 4 + (4L * k);
+            }
+            ByteBuffer tables = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                                            channel.size() - position);
+            return new PatternDatabase(n, patterns, tables);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("could not read " + filename, e);
+        }
+    }
+
+    /**
+     * writes the databases to a file that load() can map
+     *
+     * @param filename the file
+     */
+    public void save(String filename) {
+        try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+            file.setLength(0);
+            FileChannel channel = file.getChannel();
+            int headerBytes = 12;
+            for (int[] pattern : patterns) {
+                headerBytes += 4 + (4 * pattern.length);
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerBytes).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(n).putInt(patterns.length);
+            for (int[] pattern : patterns) {
+                header.putInt(pattern.length);
+                for (int tile : pattern) header.putInt(tile);
+            }
+            header.flip();
+            while (header.hasRemaining()) channel.write(header);
+            ByteBuffer body = tables.duplicate();
+            body.clear();
+            while (body.hasRemaining()) channel.write(body);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("could not write " + filename, e);
+        }
+    }
+
+    /**
+     * @return the board dimension the databases are for
+     */
+    public int dimension() {
+        return this.n;
+    }
+
+    /**
+     * the sum of the table entries of every group of tiles
+     *
+     * @param board the board
+     * @return the estimate
+     */
+    public int estimate(Board board) {
+        if (board == null) throw new IllegalArgumentException("board cannot be null");
+        if (board.dimension() != n) {
+            throw new IllegalArgumentException("the databases are for boards of size " + n);
+        }
+        int[] positions = new int[n * n];
+        for (int index = 0; index < n * n; index++) {
+            positions[board.tileAt(index)] = index;
+        }
+        int sum = 0;
+        for (int p = 0; p < patterns.length; p++) {
+            sum += lookup(p, positions);
+        }
+        return sum;
+    }
+
+    /**
+     * @return the number of groups
+     */
+    int patterns() {
+        return patterns.length;
+    }
+
+    /**
+     * the group of a tile
+     *
+     * @param tile the tile
+     * @return the index of its group, -1 for the blank
+     */
+    int patternOf(int tile) {
+        return patternOf[tile];
+    }
+
+    /**
+     * the table entry of a group
+     *
+     * @param pattern   the index of the group
+     * @param positions positions[tile] is the square of the tile
+     * @return the fewest moves of the group's tiles that put them in place
+     */
+    int lookup(int pattern, int[] positions) {
+        int[] tiles = patterns[pattern];
+        int size = n * n;
+        long used = 0;
+        int rank = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            int square = positions[tiles[i]];
+            rank = (rank * (size - i)) + square - Long.bitCount(used & ((1L << square) - 1));
+            used |= 1L << square;
+        }
+        return tables.get(offsets[pattern] + rank) & 0xFF;
+    }
+
+    /**
+     * fills the table of a group: the search runs over the placements of the group and
+     * the blank, a move of a tile of the group costs 1 and a move of any other tile
+     * costs 0, and every placement of the group keeps its cheapest blank square
+     *
+     * @param tiles  the tiles of the group
+     * @param table  where the table goes
+     * @param offset the first entry of the table
+     */
+    private void build(int[] tiles, byte[] table, int offset) {
+        int size = n * n;
+        int k = tiles.length;
+        int states = (int) falling(size, k + 1);
+        byte[] dist = new byte[states];
+        Arrays.fill(dist, (byte) UNSEEN);
+        int[] squares = new int[k + 1];
+        for (int i = 0; i < k; i++) {
+            squares[i] = tiles[i] - 1;
+        }
+        squares[k] = size - 1;
+
+        // states of the current depth and of the next one, a state can be in both
+        // when a free move reaches it after a paid one did
+        IntStack current = new IntStack();
+        IntStack next = new IntStack();
+        int start = rank(squares);
+        dist[start] = 0;
+        current.push(start);
+        for (int depth = 0; !current.isEmpty(); depth++) {
+            while (!current.isEmpty()) {
+                int state = current.pop();
+                if ((dist[state] & 0xFF) != depth) continue;
+                unrank(state, squares);
+                int blank = squares[k];
+                int row = blank / n;
+                int col = blank % n;
+                if (col < n - 1) relax(squares, blank + 1, depth, dist, current, next);
+                if (col > 0) relax(squares, blank - 1, depth, dist, current, next);
+                if (row < n - 1) relax(squares, blank + n, depth, dist, current, next);
+                if (row > 0) relax(squares, blank - n, depth, dist, current, next);
+            }
+            IntStack temp = current;
+            current = next;
+            next = temp;
+        }
+
+        int blanks = size - k;
+        int placements = states / blanks;
+        for (int placement = 0; placement < placements; placement++) {
+            int best = UNSEEN;
+            for (int b = 0; b < blanks; b++) {
+                best = Math.min(best, dist[(placement * blanks) + b] & 0xFF);
+            }
+            table[offset + placement] = (byte) best;
+        }
+    }
+
+    /**
+     * moves the blank onto a square and records the state it leads to
+     *
+     * @param squares the squares of the tiles of the group and of the blank last
+     * @param square  the square next to the blank
+     * @param depth   the cost of the current state
+     * @param dist    the cost of every state seen
+     * @param current the states of this cost
+     * @param next    the states of one more
+     */
+    private void relax(int[] squares, int square, int depth, byte[] dist, IntStack current,
+                       IntStack next) {
+        int k = squares.length - 1;
+        int blank = squares[k];
+        int moved = -1;
+        for (int i = 0; i < k; i++) {
+            if (squares[i] == square) moved = i;
+        }
+        if (moved >= 0) squares[moved] = blank;
+        squares[k] = square;
+        int state = rank(squares);
+        int cost = moved >= 0 ? depth + 1 : depth;
+        if ((dist[state] & 0xFF) > cost) {
+            dist[state] = (byte) cost;
+            if (moved >= 0) next.push(state);
+            else current.push(state);
+        }
+        if (moved >= 0) squares[moved] = square;
+        squares[k] = blank;
+    }
+
+    /**
+     * numbers a placement of distinct squares: the i-th square counts among the
+     * squares not used before it, so every digit has one choice less
+     *
+     * @param squares the squares
+     * @return the rank
+     */
+    private int rank(int[] squares) {
+        int size = n * n;
+        long used = 0;
+        int rank = 0;
+        for (int i = 0; i < squares.length; i++) {
+            int square = squares[i];
+            rank = (rank * (size - i)) + square - Long.bitCount(used & ((1L << square) - 1));
+            used |= 1L << square;
+        }
+        return rank;
+    }
+
+    private void unrank(int rank, int[] squares) {
+        int size = n * n;
+        for (int i = squares.length - 1; i >= 0; i--) {
+            squares[i] = rank % (size - i);
+            rank /= size - i;
+        }
+        long used = 0;
+        for (int i = 0; i < squares.length; i++) {
+            // the digit-th square not used yet
+            long free = ~used;
+            for (int d = squares[i]; d > 0; d--) free &= free - 1;
+            squares[i] = Long.numberOfTrailingZeros(free);
+            used |= 1L << squares[i];
+        }
+    }
+
+    /**
+     * size * (size - 1) * ... the number of ways to place k distinct things on size squares
+     *
+     * @param size the number of squares
+     * @param k    the number of things
+     * @return the number of placements
+     */
+    private static long falling(int size, int k) {
+        long product = 1;
+        for (int i = 0; i < k; i++) {
+            product *= size - i;
+        }
+        return product;
+    }
+
+    private static int[][] defaultPatterns(int n) {
+        if (n == 3) return new int[][] { { 1, 2, 3, 4 }, { 5, 6, 7, 8 } };
+        if (n == 4) {
+            return new int[][] {
+                    { 1, 2, 4, 5, 8, 9 }, { 3, 6, 7, 10, 11, 15 }, { 12, 13, 14 }
+            };
+        }
+        throw new IllegalArgumentException("no default patterns for n = " + n);
+    }
+
+    private static int[][] copyOf(int[][] patterns) {
+        if (patterns == null) throw new IllegalArgumentException("patterns cannot be null");
+        int[][] copy = new int[patterns.length][];
+        for (int p = 0; p < patterns.length; p++) {
+            if (patterns[p] == null) {
+                throw new IllegalArgumentException("patterns cannot be null");
+            }
+            copy[p] = patterns[p].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * checks that the groups split the tiles and that the searches fit in an array
+     *
+     * @param n        the board dimension
+     * @param patterns the groups
+     * @return the group of every tile
+     */
+    private static int[] validate(int n, int[][] patterns) {
+        if (n < 2 || n > MAX_N) {
+            throw new IllegalArgumentException("n has to be between 2 and " + MAX_N);
+        }
+        int[] patternOf = new int[n * n];
+        Arrays.fill(patternOf, -1);
+        for (int p = 0; p < patterns.length; p++) {
+            if (patterns[p].length == 0) throw new IllegalArgumentException("empty pattern");
+            if (falling(n * n, patterns[p].length + 1) > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("pattern " + p + " is too big");
+            }
+            for (int tile : patterns[p]) {
+                if (tile < 1 || tile >= n * n || patternOf[tile] >= 0) {
+                    throw new IllegalArgumentException("bad or repeated tile: " + tile);
+                }
+                patternOf[tile] = p;
+            }
+        }
+        for (int tile = 1; tile < n * n; tile++) {
+            if (patternOf[tile] < 0) {
+                throw new IllegalArgumentException("tile " + tile + " is in no pattern");
+            }
+        }
+        return patternOf;
+    }
+
+    private static int[] offsets(int n, int[][] patterns) {
+        int[] offsets = new int[patterns.length + 1];
+        long total = 0;
+        for (int p = 0; p < patterns.length; p++) {
+            offsets[p] = (int) total;
+            total += falling(n * n, patterns[p].length);
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("the tables are too big");
+            }
+        }
+        offsets[patterns.length] = (int) total;
+        return offsets;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("unexpected end of file");
+        }
+    }
+
+    // a growable stack of ints
+    private static class IntStack {
+        private int[] items = new int[1024];
+        private int size;
+
+        void push(int item) {
+            if (size == items.length) items = Arrays.copyOf(items, 2 * size);
+            items[size++] = item;
+        }
+
+        int pop() {
+            return items[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    /**
+     * builds the default databases for a board size and saves them
+     *
+     * @param args the board dimension and the file to write
+     */
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        Stopwatch stopwatch = new Stopwatch();
+        PatternDatabase database = new PatternDatabase(n);
+        database.save(args[1]);
+        StdOut.println("built in " + stopwatch.elapsedTime() + " seconds");
+    }
+}
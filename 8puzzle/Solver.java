@@ -8,27 +8,316 @@
 import edu.princeton.cs.algs4.MinPQ;
 import edu.princeton.cs.algs4.Stack;
 
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
 public class Solver {
+    /**
+     * the search the solver runs
+     */
+    public enum Algorithm {
+        // A* with a priority queue of every board seen, the fastest on small boards
+        ASTAR,
+        // iterative deepening A*, needs memory for one path only so it can solve 15-
+        // and 24-puzzles
+        IDA_STAR,
+        // IDA* with the subtrees of every iteration searched on the threads of a
+        // fork join pool, still returns a shortest solution
+        PARALLEL_IDA_STAR
+    }
+
+    /**
+     * the priority queue of A*
+     */
+    public enum Frontier {
+        // the binary heap of algs4, MinPQ
+        BINARY_HEAP,
+        // a stack for every pair of priority and heuristic value, the priorities are
+        // small integers so insert and delMin take constant time, ties go to the
+        // smallest heuristic value which is the node closest to the goal
+        BUCKETS
+    }
+
+    /**
+     * how the solver searches, every setter returns the options so they can be chained
+     */
+    public static class Options {
+        private Algorithm algorithm = Algorithm.ASTAR;
+        private Heuristic heuristic;
+        private boolean closedSet;
+        private Frontier frontier = Frontier.BINARY_HEAP;
+        private long nodeLimit = Long.MAX_VALUE;
+        private long timeLimit = Long.MAX_VALUE;
+        private ForkJoinPool pool;
+        private Metrics metrics;
+
+        /**
+         * @param algorithm the search to run, A* by default
+         * @return these options
+         */
+        public Options algorithm(Algorithm algorithm) {
+            if (algorithm == null) throw new IllegalArgumentException("algorithm cannot be null");
+            this.algorithm = algorithm;
+            return this;
+        }
+
+        /**
+         * @param heuristic the estimate of the moves left, by default manhattan for A*
+         *                  and linear conflict for IDA*
+         * @return these options
+         */
+        public Options heuristic(Heuristic heuristic) {
+            if (heuristic == null) throw new IllegalArgumentException("heuristic cannot be null");
+            this.heuristic = heuristic;
+            return this;
+        }
+
+        /**
+         * keeps every board A* has expanded and never expands or queues it again, the
+         * heuristic has to be consistent (all the built in ones are) for the solutions
+         * to stay the shortest
+         *
+         * @param closedSet true to keep the closed set
+         * @return these options
+         */
+        public Options closedSet(boolean closedSet) {
+            this.closedSet = closedSet;
+            return this;
+        }
+
+        /**
+         * @param frontier the priority queue of A*, the binary heap by default
+         * @return these options
+         */
+        public Options frontier(Frontier frontier) {
+            if (frontier == null) throw new IllegalArgumentException("frontier cannot be null");
+            this.frontier = frontier;
+            return this;
+        }
+
+        /**
+         * gives up after expanding this many boards, see gaveUp()
+         *
+         * @param nodeLimit the most boards to expand
+         * @return these options
+         */
+        public Options nodeLimit(long nodeLimit) {
+            if (nodeLimit <= 0) throw new IllegalArgumentException("nodeLimit has to be positive");
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        /**
+         * gives up after searching this long, see gaveUp()
+         *
+         * @param millis the most milliseconds to search
+         * @return these options
+         */
+        public Options timeLimit(long millis) {
+            if (millis <= 0) throw new IllegalArgumentException("timeLimit has to be positive");
+            this.timeLimit = millis;
+            return this;
+        }
+
+        /**
+         * @param pool the pool parallel IDA* runs on, the common pool by default
+         * @return these options
+         */
+        public Options pool(ForkJoinPool pool) {
+            if (pool == null) throw new IllegalArgumentException("pool cannot be null");
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * fills in the counters of the search, a Solver fills them in for one board at a
+         * time so they should not be shared by solvers running at once
+         *
+         * @param metrics the counters, null for none which is the default
+         * @return these options
+         */
+        public Options metrics(Metrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        // true if the options carry metrics, which one solver at a time can fill in
+        boolean hasMetrics() {
+            return metrics != null;
+        }
+
+        private long deadline(long start) {
+            if (timeLimit >= Long.MAX_VALUE / 1000000) return Long.MAX_VALUE;
+            return start + (timeLimit * 1000000);
+        }
+
+        private Heuristic heuristic() {
+            if (heuristic != null) return heuristic;
+            return algorithm == Algorithm.ASTAR ? Heuristic.MANHATTAN
+                                                : Heuristic.LINEAR_CONFLICT;
+        }
+
+        private ForkJoinPool pool() {
+            return pool != null ? pool : ForkJoinPool.commonPool();
+        }
+    }
+
+    /**
+     * the counters of a search to compare heuristics and spot boards that blow up,
+     * a Solver without them does not count anything beyond expanded()
+     */
+    public static class Metrics {
+        private final long interval;
+        private final Consumer<Metrics> progress;
+        private long nextProgress;
+        private long expanded;
+        private long generated;
+        private long duplicates;
+        private int maxFrontier;
+        private long estimateSum;
+        private int iterations;
+        private long checkNanos;
+        private long searchNanos;
+
+        /**
+         * counters without progress reports
+         */
+        public Metrics() {
+            this.interval = Long.MAX_VALUE;
+            this.progress = null;
+        }
+
+        /**
+         * counters that are reported while the search runs, by A* and IDA* on the
+         * searching thread every interval expansions (IDA* rounds it up to a multiple
+         * of 4096) and by parallel IDA* on the calling thread after every iteration
+         *
+         * @param interval the expansions between two reports
+         * @param progress called with these counters
+         */
+        public Metrics(long interval, Consumer<Metrics> progress) {
+            if (interval <= 0) throw new IllegalArgumentException("interval has to be positive");
+            if (progress == null) throw new IllegalArgumentException("progress cannot be null");
+            this.interval = interval;
+            this.progress = progress;
+        }
+
+        /**
+         * @return the number of boards expanded so far
+         */
+        public long expanded() {
+            return expanded;
+        }
+
+        /**
+         * @return the number of boards A* put on its queue, the initial one not counted
+         */
+        public long generated() {
+            return generated;
+        }
+
+        /**
+         * @return the number of boards A* dropped because they were the parent of the
+         * board expanded or, with a closed set, expanded already
+         */
+        public long duplicates() {
+            return duplicates;
+        }
+
+        /**
+         * @return the most boards the queue of A* held at once
+         */
+        public int maxFrontier() {
+            return maxFrontier;
+        }
+
+        /**
+         * the mean estimate of the boards A* queued, the larger the better the
+         * heuristic as long as it stays admissible
+         *
+         * @return the mean estimate, 0 if nothing was queued
+         */
+        public double averageEstimate() {
+            return generated == 0 ? 0.0 : (double) estimateSum / generated;
+        }
+
+        /**
+         * @return the number of bounds IDA* searched so far
+         */
+        public int iterations() {
+            return iterations;
+        }
+
+        /**
+         * @return the seconds spent finding out if the board can be solved
+         */
+        public double checkSeconds() {
+            return checkNanos / 1e9;
+        }
+
+        /**
+         * @return the seconds spent searching, 0 until the search is over
+         */
+        public double searchSeconds() {
+            return searchNanos / 1e9;
+        }
+
+        private void reset() {
+            nextProgress = interval;
+            expanded = 0;
+            generated = 0;
+            duplicates = 0;
+            maxFrontier = 0;
+            estimateSum = 0;
+            iterations = 0;
+            checkNanos = 0;
+            searchNanos = 0;
+        }
+
+        // counts a board A* queued with the given estimate
+        private void generated(int estimate) {
+            generated++;
+            estimateSum += estimate;
+        }
+
+        // records an A* expansion and reports when it is time
+        private void expanded(long count, int frontier) {
+            if (frontier > maxFrontier) maxFrontier = frontier;
+            expanded = count;
+            if (count >= nextProgress) report(count);
+        }
+
+        private void report(long count) {
+            expanded = count;
+            nextProgress = count + interval;
+            if (progress != null) progress.accept(this);
+        }
+    }
+
     private class Node implements Comparable<Node> {
         private int moves;
         private Board result;
         private Node prev;
+        // worked out once, the queue compares it on every insert and delMin
+        private final int priority;
+        // the node below this one in its bucket
+        private Node next;
 
         public Node(Board board) {
-            this.moves = 0;
-            this.prev = null;
-            this.result = board;
+            this(board, 0, null);
         }
 
         public Node(Board board, int moves, Node prev) {
             this.moves = moves;
             this.result = board;
             this.prev = prev;
+            this.priority = moves + heuristic.estimate(board);
         }
 
         public int priority() {
-            int man = this.result.manhattan();
-            return this.moves + man;
+            return this.priority;
         }
 
         /**
@@ -70,12 +359,95 @@ public class Solver {
          */
         public int compareTo(Node that) {
             if (that == null) throw new IllegalArgumentException("NUll argument");
-            return Integer.compare(this.priority(), that.priority());
+            return Integer.compare(this.priority, that.priority);
         }
     }
 
+    // the queue of nodes A* has still to expand
+    private interface OpenList {
+        void insert(Node node);
+
+        Node delMin();
+
+        int size();
+    }
+
+    private class HeapOpenList implements OpenList {
+        private final MinPQ<Node> pq = new MinPQ<Node>();
+
+        public void insert(Node node) {
+            pq.insert(node);
+        }
+
+        public Node delMin() {
+            return pq.delMin();
+        }
+
+        public int size() {
+            return pq.size();
+        }
+    }
+
+    private class BucketOpenList implements OpenList {
+        // buckets[f][h] is the top of the stack of nodes with priority f and estimate h
+        private Node[][] buckets = new Node[64][];
+        // the number of nodes of every priority
+        private int[] counts = new int[64];
+        // no priority below this one has nodes
+        private int min;
+        private int size;
+
+        public void insert(Node node) {
+            int f = node.priority;
+            int h = f - node.moves;
+            if (f >= buckets.length) {
+                int length = Math.max(2 * buckets.length, f + 1);
+                buckets = Arrays.copyOf(buckets, length);
+                counts = Arrays.copyOf(counts, length);
+            }
+            if (buckets[f] == null) buckets[f] = new Node[f + 1];
+            node.next = buckets[f][h];
+            buckets[f][h] = node;
+            counts[f]++;
+            // only an inconsistent heuristic can give a child a smaller priority
+            if (f < min) min = f;
+            size++;
+        }
+
+        public Node delMin() {
+            if (size == 0) throw new NoSuchElementException("Priority queue underflow");
+            while (counts[min] == 0) min++;
+            Node[] bucket = buckets[min];
+            int h = 0;
+            while (bucket[h] == null) h++;
+            Node node = bucket[h];
+            bucket[h] = node.next;
+            node.next = null;
+            counts[min]--;
+            size--;
+            return node;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    // the clock is read once every this many boards taken off the queue
+    private static final int CLOCK_INTERVAL = 1024;
+
     private boolean solvable = false;
-    private MinPQ<Node> moves;
+    private boolean gaveUp = false;
+    private long expanded;
+    private final Heuristic heuristic;
+    // the counters of the search, null when not asked for
+    private final Metrics metrics;
+    // the last node of the A* solution
+    private Node goal;
+    // the boards of the solution when it is not read off the queue
+    private Stack<Board> path;
+    // reused for the neighbors of every expanded board
+    private final Board[] neighbors = new Board[4];
 
     /**
      * finds a solution for the given board
@@ -83,47 +455,188 @@ public class Solver {
      * @param initial the given board
      */
     public Solver(Board initial) {
+        this(initial, Algorithm.ASTAR);
+    }
+
+    /**
+     * finds a solution for the given board with the given search, A* estimates with
+     * manhattan and IDA* with linear conflict
+     *
+     * @param initial   the given board
+     * @param algorithm the search to run
+     */
+    public Solver(Board initial, Algorithm algorithm) {
+        this(initial, new Options().algorithm(algorithm));
+    }
+
+    /**
+     * finds a solution for the given board with the given search and heuristic
+     *
+     * @param initial   the given board
+     * @param algorithm the search to run
+     * @param heuristic the estimate of the moves left, a PatternDatabase for example
+     */
+    public Solver(Board initial, Algorithm algorithm, Heuristic heuristic) {
+        this(initial, new Options().algorithm(algorithm).heuristic(heuristic));
+    }
+
+    /**
+     * finds a solution for the given board as the options say
+     *
+     * @param initial the given board
+     * @param options how to search
+     */
+    public Solver(Board initial, Options options) {
         if (initial == null) throw new IllegalArgumentException();
+        if (options == null) throw new IllegalArgumentException("options cannot be null");
+        this.heuristic = options.heuristic();
+        this.metrics = options.metrics;
+        if (metrics != null) metrics.reset();
+        long start = System.nanoTime();
+        // the parity of the board tells if it can be solved, so only a solvable board
+        // is searched and its search always reaches the goal
+        this.solvable = initial.isSolvable();
+        long searching = System.nanoTime();
+        if (metrics != null) metrics.checkNanos = searching - start;
+        if (!solvable) return;
+        long deadline = options.deadline(searching);
+        if (options.algorithm == Algorithm.IDA_STAR) {
+            solveIdaStar(initial, options.nodeLimit, deadline);
+        }
+        else if (options.algorithm == Algorithm.PARALLEL_IDA_STAR) {
+            solveParallelIdaStar(initial, options.nodeLimit, deadline, options.pool());
+        }
+        else {
+            solveAStar(initial, options, deadline);
+        }
+        if (metrics != null) {
+            metrics.expanded = expanded;
+            metrics.searchNanos = System.nanoTime() - searching;
+        }
+    }
 
-        moves = new MinPQ<Node>();
-        MinPQ<Node> twinMoves = new MinPQ<Node>();
-
-        moves.insert(new Node(initial));
-        twinMoves.insert(new Node(initial.twin()));
-        // two nodes incase the puzzle is unsolvable
-        Node sol;
-        Node twinSol;
-        while (!twinMoves.isEmpty() && !moves.isEmpty()) {
-            // check if board is unsolvable and use twin board if not
-            if (moves.min().result.isGoal()) {
-                this.solvable = true;
-                return;
-            } else if (twinMoves.min().result.isGoal()) {
-                this.solvable = false;
+    /**
+     * solves a board by A*
+     *
+     * @param initial  the given board
+     * @param options  the queue, the closed set and the node limit of the search
+     * @param deadline the System.nanoTime() to give up at, Long.MAX_VALUE for never
+     */
+    private void solveAStar(Board initial, Options options, long deadline) {
+        OpenList open = options.frontier == Frontier.BUCKETS ? new BucketOpenList()
+                                                              : new HeapOpenList();
+        BoardSet closed = options.closedSet ? new BoardSet() : null;
+        open.insert(new Node(initial));
+        Node node = open.delMin();
+        // counts every board taken off the queue, expanded stands still on the boards
+        // the closed set skips and would read the clock on each of them or on none
+        long taken = 1;
+        while (!node.result.isGoal()) {
+            if (expanded == options.nodeLimit || (taken % CLOCK_INTERVAL == 0
+                    && deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0)) {
+                this.gaveUp = true;
                 return;
             }
+            expand(open, node, closed);
+            node = open.delMin();
+            taken++;
+        }
+        this.goal = node;
+    }
 
-            sol = moves.delMin();
-            twinSol = twinMoves.delMin();
+    /**
+     * solves a board by iterative deepening
+     *
+     * @param initial   the given board
+     * @param nodeLimit the most boards to expand
+     * @param deadline  the System.nanoTime() to give up at, Long.MAX_VALUE for never
+     */
+    private void solveIdaStar(Board initial, long nodeLimit, long deadline) {
+        IdaStar search = new IdaStar(initial, heuristic, nodeLimit, deadline);
+        if (metrics != null && metrics.progress != null) {
+            search.progress(metrics.interval, () -> {
+                metrics.iterations = search.iterations();
+                metrics.report(search.expanded());
+            });
+        }
+        int count = search.solve();
+        this.expanded = search.expanded();
+        if (metrics != null) metrics.iterations = search.iterations();
+        if (count < 0) this.gaveUp = true;
+        else follow(initial, search.path(), count);
+    }
 
-            Iterable<Board> neighbors = sol.result.neighbors();
-            Iterable<Board> twinNeighbors = twinSol.result.neighbors();
+    /**
+     * solves a board by iterative deepening on the threads of a pool
+     *
+     * @param initial   the given board
+     * @param nodeLimit the most boards to expand
+     * @param deadline  the System.nanoTime() to give up at, Long.MAX_VALUE for never
+     * @param pool      the pool the search runs on
+     */
+    private void solveParallelIdaStar(Board initial, long nodeLimit, long deadline,
+                                      ForkJoinPool pool) {
+        ParallelIdaStar search = new ParallelIdaStar(initial, heuristic, nodeLimit, deadline,
+                                                     pool);
+        if (metrics != null && metrics.progress != null) {
+            search.progress(() -> {
+                metrics.iterations = search.iterations();
+                metrics.report(search.expanded());
+            });
+        }
+        int count = search.solve();
+        this.expanded = search.expanded();
+        if (metrics != null) metrics.iterations = search.iterations();
+        if (count < 0) this.gaveUp = true;
+        else follow(initial, search.path(), count);
+    }
 
-            for (Board n : neighbors) {
-                if (sol.prev == null || !n.equals(sol.prev.result)) {
-                    moves.insert(new Node(n, sol.moves + 1, sol));
-                }
+    /**
+     * keeps the boards along the blank squares of a solution found by IDA*
+     *
+     * @param initial the given board
+     * @param squares the square of the blank after every move
+     * @param count   the number of moves
+     */
+    private void follow(Board initial, int[] squares, int count) {
+        Board[] boards = new Board[count + 1];
+        boards[0] = initial;
+        for (int g = 0; g < count; g++) {
+            boards[g + 1] = boards[g].slide(squares[g]);
+        }
+        this.path = new Stack<Board>();
+        for (int g = count; g >= 0; g--) {
+            path.push(boards[g]);
+        }
+    }
 
+    /**
+     * inserts the neighbors of a node except the board it came from and, with a
+     * closed set, the boards already expanded
+     *
+     * @param open   the queue of the search
+     * @param node   the node to expand
+     * @param closed the boards expanded so far, null without a closed set
+     */
+    private void expand(OpenList open, Node node, BoardSet closed) {
+        // a board can be queued more than once before it is expanded
+        if (closed != null && !closed.add(node.result)) {
+            if (metrics != null) metrics.duplicates++;
+            return;
+        }
+        expanded++;
+        int count = node.result.neighbors(neighbors);
+        for (int k = 0; k < count; k++) {
+            if ((node.prev != null && neighbors[k].equals(node.prev.result))
+                    || (closed != null && closed.contains(neighbors[k]))) {
+                if (metrics != null) metrics.duplicates++;
+                continue;
             }
-            for (Board n : twinNeighbors) {
-                if (twinSol.prev == null || !n.equals(twinSol.prev.result)) {
-                    twinMoves.insert(new Node(n, twinSol.moves + 1, twinSol));
-                }
-            }
-
-
+            Node child = new Node(neighbors[k], node.moves + 1, node);
+            open.insert(child);
+            if (metrics != null) metrics.generated(child.priority - child.moves);
         }
-
+        if (metrics != null) metrics.expanded(expanded, open.size());
     }
 
     /**
@@ -135,6 +648,25 @@ public class Solver {
         return solvable;
     }
 
+    /**
+     * checks if the search ran out of its node or time budget before it found the
+     * solution, moves() is -1 and solution() null then even if the board is solvable
+     *
+     * @return true if the solver gave up
+     */
+    public boolean gaveUp() {
+        return gaveUp;
+    }
+
+    /**
+     * the number of boards the search expanded
+     *
+     * @return the number of expanded boards
+     */
+    public long expanded() {
+        return expanded;
+    }
+
     /**
      * the min number of moves to solve the inital board; -1 if
      * unsolvable
@@ -142,8 +674,9 @@ public class Solver {
      * @return the min number of moves needed(-1 if impossible)
      */
     public int moves() {
-        if (isSolvable()) return moves.min().moves;
-        return -1;
+        if (!isSolvable() || gaveUp) return -1;
+        if (path != null) return path.size() - 1;
+        return goal.moves;
     }
 
     /**
@@ -151,11 +684,12 @@ public class Solver {
      * null if unsolvable
      */
     public Iterable<Board> solution() {
-        if (!isSolvable()) return null;
+        if (!isSolvable() || gaveUp) return null;
+        if (path != null) return path;
         Stack<Board> solutions = new Stack<Board>();
-        Node cur = moves.min();
+        Node cur = goal;
         // the solution will be a linked list starting
-        // from the last min then goes up
+        // from the goal then goes up
         while (cur.prev != null) {
             solutions.push(cur.result);
             cur = cur.prev;
@@ -0,0 +1,204 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Checks every search of the Solver against plain A* and
+ *                  against a breadth first search of every 2-by-2 board, on
+ *                  boards scrambled from the goal with a fixed seed
+ **************************************************************************** */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SolverCrossCheckTest {
+    private static final long SEED = 20261018L;
+    private static final int BOARDS = 40;
+    // scrambles of up to this many random moves stay quick for plain A*
+    private static final int MAX_SCRAMBLE = 60;
+
+    @Test
+    public void everySearchSolvesEvery2by2Board() {
+        // the distance of every solvable board from the goal, the others never show up
+        HashMap<Board, Integer> distance = new HashMap<Board, Integer>();
+        ArrayDeque<Board> queue = new ArrayDeque<Board>();
+        Board goal = goal(2);
+        distance.put(goal, 0);
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            Board board = queue.remove();
+            for (Board next : board.neighbors()) {
+                if (distance.containsKey(next)) continue;
+                distance.put(next, distance.get(board) + 1);
+                queue.add(next);
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int[] tiles : permutations(4)) {
+                Board board = new Board(new int[][] {
+                        { tiles[0], tiles[1] }, { tiles[2], tiles[3] }
+                });
+                Integer expected = distance.get(board);
+                for (Solver.Options options : options(2, pool)) {
+                    Solver solver = new Solver(board, options);
+                    if (expected == null) {
+                        assertFalse(solver.isSolvable(), board.toString());
+                        assertEquals(-1, solver.moves());
+                        assertNull(solver.solution());
+                    }
+                    else {
+                        assertTrue(solver.isSolvable(), board.toString());
+                        assertEquals((int) expected, solver.moves(), board.toString());
+                        checkSolution(board, solver);
+                    }
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void everySearchMatchesAStarOn3by3Boards() {
+        Random random = new Random(SEED);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ArrayList<Solver.Options> all = options(3, pool);
+            for (int b = 0; b < BOARDS; b++) {
+                Board board = scramble(3, random.nextInt(MAX_SCRAMBLE + 1), random);
+                Solver expected = new Solver(board);
+                assertTrue(expected.isSolvable());
+                checkSolution(board, expected);
+                for (Solver.Options options : all) {
+                    Solver solver = new Solver(board, options);
+                    assertEquals(expected.moves(), solver.moves(), board.toString());
+                    checkSolution(board, solver);
+                }
+                // a swap of two tiles can never be solved
+                assertFalse(new Solver(board.twin(), all.get(0)).isSolvable());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void patternDatabaseNeverOverestimates() throws IOException {
+        Random random = new Random(SEED);
+        PatternDatabase database = new PatternDatabase(3);
+        File file = File.createTempFile("pdb", ".bin");
+        try {
+            database.save(file.getPath());
+            PatternDatabase loaded = PatternDatabase.load(file.getPath());
+            for (int b = 0; b < BOARDS; b++) {
+                Board board = scramble(3, random.nextInt(MAX_SCRAMBLE + 1), random);
+                int moves = new Solver(board).moves();
+                int estimate = database.estimate(board);
+                assertTrue(estimate <= moves, board.toString());
+                assertTrue(estimate >= 0, board.toString());
+                assertEquals(estimate, loaded.estimate(board), board.toString());
+            }
+            assertEquals(0, database.estimate(goal(3)));
+        }
+        finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    // every search the Solver offers on boards of dimension n
+    private static ArrayList<Solver.Options> options(int n, ForkJoinPool pool) {
+        // there are no default groups below the 8-puzzle
+        PatternDatabase database = n == 2
+                ? new PatternDatabase(2, new int[][] { { 1, 3 }, { 2 } })
+                : new PatternDatabase(n);
+        ArrayList<Solver.Options> all = new ArrayList<Solver.Options>();
+        all.add(new Solver.Options().closedSet(true));
+        all.add(new Solver.Options().frontier(Solver.Frontier.BUCKETS));
+        all.add(new Solver.Options().heuristic(Heuristic.LINEAR_CONFLICT).closedSet(true)
+                                    .frontier(Solver.Frontier.BUCKETS));
+        all.add(new Solver.Options().heuristic(database));
+        all.add(new Solver.Options().algorithm(Solver.Algorithm.IDA_STAR));
+        all.add(new Solver.Options().algorithm(Solver.Algorithm.IDA_STAR)
+                                    .heuristic(Heuristic.MANHATTAN));
+        all.add(new Solver.Options().algorithm(Solver.Algorithm.IDA_STAR).heuristic(database));
+        all.add(new Solver.Options().algorithm(Solver.Algorithm.PARALLEL_IDA_STAR).pool(pool));
+        all.add(new Solver.Options().algorithm(Solver.Algorithm.PARALLEL_IDA_STAR).pool(pool)
+                                    .heuristic(database));
+        return all;
+    }
+
+    // the solution starts at the board, ends at the goal and makes one move at a time
+    private static void checkSolution(Board board, Solver solver) {
+        Iterator<Board> it = solver.solution().iterator();
+        Board prev = it.next();
+        assertEquals(board, prev);
+        int moves = 0;
+        while (it.hasNext()) {
+            Board next = it.next();
+            boolean neighbor = false;
+            for (Board b : prev.neighbors()) {
+                if (b.equals(next)) neighbor = true;
+            }
+            assertTrue(neighbor, prev + " to " + next);
+            prev = next;
+            moves++;
+        }
+        assertTrue(prev.isGoal());
+        assertEquals(solver.moves(), moves);
+    }
+
+    private static Board goal(int n) {
+        int[][] tiles = new int[n][n];
+        for (int i = 0; i < n * n - 1; i++) {
+            tiles[i / n][i % n] = i + 1;
+        }
+        return new Board(tiles);
+    }
+
+    // the goal after the given number of random moves, which keeps it solvable
+    private static Board scramble(int n, int moves, Random random) {
+        Board board = goal(n);
+        for (int m = 0; m < moves; m++) {
+            ArrayList<Board> neighbors = new ArrayList<Board>();
+            for (Board b : board.neighbors()) {
+                neighbors.add(b);
+            }
+            board = neighbors.get(random.nextInt(neighbors.size()));
+        }
+        return board;
+    }
+
+    // every ordering of 0..n-1
+    private static ArrayList<int[]> permutations(int n) {
+        ArrayList<int[]> all = new ArrayList<int[]>();
+        permutations(new int[n], new boolean[n], 0, all);
+        return all;
+    }
+
+    private static void permutations(int[] a, boolean[] used, int i, ArrayList<int[]> all) {
+        if (i == a.length) {
+            all.add(a.clone());
+            return;
+        }
+        for (int v = 0; v < a.length; v++) {
+            if (used[v]) continue;
+            used[v] = true;
+            a[i] = v;
+            permutations(a, used, i + 1, all);
+            used[v] = false;
+        }
+    }
+}
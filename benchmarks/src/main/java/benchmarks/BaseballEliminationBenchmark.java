@@ -0,0 +1,87 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    BaseballElimination.isEliminated for every team of a random
+ *                  division, written to a temporary file in the format of the
+ *                  assignment
+ **************************************************************************** */
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseballEliminationBenchmark {
+    private static final MethodHandle NEW = Handles.constructor("BaseballElimination",
+                                                                String.class);
+    private static final MethodHandle IS_ELIMINATED = Handles.method("BaseballElimination",
+                                                                     "isEliminated",
+                                                                     boolean.class,
+                                                                     String.class);
+
+    @Param({ "5", "30" })
+    private int teams;
+
+    private Object division;
+    private String[] names;
+
+    @Setup
+    public void setup() throws Throwable {
+        Random random = new Random(42);
+        int[][] games = new int[teams][teams];
+        int[] left = new int[teams];
+        for (int i = 0; i < teams; i++) {
+            for (int j = i + 1; j < teams; j++) {
+                games[i][j] = random.nextInt(6);
+                games[j][i] = games[i][j];
+                left[i] += games[i][j];
+                left[j] += games[i][j];
+            }
+        }
+        names = new String[teams];
+        File file = File.createTempFile("division", ".txt");
+        file.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.println(teams);
+            for (int i = 0; i < teams; i++) {
+                names[i] = "Team" + i;
+                int wins = 40 + random.nextInt(40);
+                out.print(names[i] + " " + wins + " " + random.nextInt(80) + " " + left[i]);
+                for (int j = 0; j < teams; j++) out.print(" " + games[i][j]);
+                out.println();
+            }
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        division = (Object) NEW.invokeExact((Object) file.getPath());
+    }
+
+    @Benchmark
+    public void isEliminated(Blackhole bh) throws Throwable {
+        for (String name : names) {
+            bh.consume((boolean) IS_ELIMINATED.invokeExact(division, (Object) name));
+        }
+    }
+}
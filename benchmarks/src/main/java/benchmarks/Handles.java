@@ -0,0 +1,86 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    The assignments live in the default package, which a class
+ *                  in a package cannot name, and jmh refuses benchmarks in the
+ *                  default package. The benchmarks reach them through method
+ *                  handles kept in static final fields so the jit can inline
+ *                  the calls like ordinary ones.
+ **************************************************************************** */
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+final class Handles {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private Handles() {
+    }
+
+    /**
+     * loads a class of the default package
+     *
+     * @param className the simple name of the class
+     * @return the class
+     */
+    static Class<?> type(String className) {
+        try {
+            return Class.forName(className);
+        }
+        catch (ClassNotFoundException e) {
+            throw new IllegalStateException("missing class " + className, e);
+        }
+    }
+
+    /**
+     * a constructor of a default package class, typed to return Object and to take
+     * Object for every reference parameter so it can be called with invokeExact
+     *
+     * @param className the simple name of the class
+     * @param params    the parameter types of the constructor
+     * @return the handle
+     */
+    static MethodHandle constructor(String className, Class<?>... params) {
+        try {
+            MethodHandle handle = LOOKUP.findConstructor(type(className),
+                                                         MethodType.methodType(void.class, params));
+            return handle.asType(MethodType.methodType(Object.class, erase(params)));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("missing constructor of " + className, e);
+        }
+    }
+
+    /**
+     * a public method of a default package class, typed like constructor() with the
+     * receiver as the first Object parameter
+     *
+     * @param className  the simple name of the class
+     * @param name       the name of the method
+     * @param returnType the return type of the method
+     * @param params     the parameter types of the method
+     * @return the handle
+     */
+    static MethodHandle method(String className, String name, Class<?> returnType,
+                               Class<?>... params) {
+        try {
+            MethodHandle handle = LOOKUP.findVirtual(type(className), name,
+                                                     MethodType.methodType(returnType, params));
+            Class<?> erasedReturn = returnType.isPrimitive() ? returnType : Object.class;
+            return handle.asType(MethodType.methodType(erasedReturn, erase(params))
+                                           .insertParameterTypes(0, Object.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("missing method " + className + "." + name, e);
+        }
+    }
+
+    private static Class<?>[] erase(Class<?>[] params) {
+        Class<?>[] erased = new Class<?>[params.length];
+        for (int i = 0; i < params.length; i++) {
+            erased[i] = params[i].isPrimitive() ? params[i] : Object.class;
+        }
+        return erased;
+    }
+}
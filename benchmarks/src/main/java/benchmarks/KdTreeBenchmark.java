@@ -0,0 +1,111 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Nearest neighbor and range queries on a KdTree of n uniform
+ *                  random points in the unit square, built by inserting them
+ *                  one by one or by the bulk loading constructor
+ **************************************************************************** */
+package benchmarks;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KdTreeBenchmark {
+    private static final MethodHandle NEW = Handles.constructor("KdTree");
+    private static final MethodHandle LOAD = Handles.constructor("KdTree", Point2D[].class);
+    private static final MethodHandle INSERT = Handles.method("KdTree", "insert", void.class,
+                                                              Point2D.class);
+    private static final MethodHandle NEAREST = Handles.method("KdTree", "nearest",
+                                                               Point2D.class, Point2D.class);
+    private static final MethodHandle RANGE = Handles.method("KdTree", "range", Iterable.class,
+                                                             RectHV.class);
+    private static final MethodHandle NEAREST_BATCH = Handles.method("KdTree", "nearest",
+                                                                     void.class, Point2D[].class,
+                                                                     double[].class,
+                                                                     double[].class);
+    private static final int QUERIES = 1024;
+
+    @Param({ "10000", "1000000" })
+    private int n;
+
+    // side of the square range queries
+    @Param({ "0.01" })
+    private double side;
+
+    @Param({ "insert", "bulk" })
+    private String load;
+
+    private Object tree;
+    private Point2D[] points;
+    private RectHV[] rects;
+    private int next;
+    private double[] nearestX;
+    private double[] nearestY;
+
+    @Setup
+    public void setup() throws Throwable {
+        Random random = new Random(42);
+        Point2D[] all = new Point2D[n];
+        for (int i = 0; i < n; i++) {
+            all[i] = new Point2D(random.nextDouble(), random.nextDouble());
+        }
+        if (load.equals("bulk")) {
+            tree = (Object) LOAD.invokeExact((Object) all);
+        }
+        else {
+            tree = (Object) NEW.invokeExact();
+            for (Point2D p : all) {
+                INSERT.invokeExact(tree, (Object) p);
+            }
+        }
+        points = new Point2D[QUERIES];
+        rects = new RectHV[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            double x = random.nextDouble() * (1 - side);
+            double y = random.nextDouble() * (1 - side);
+            points[i] = new Point2D(random.nextDouble(), random.nextDouble());
+            rects[i] = new RectHV(x, y, x + side, y + side);
+        }
+        nearestX = new double[QUERIES];
+        nearestY = new double[QUERIES];
+    }
+
+    @Benchmark
+    public Object nearest() throws Throwable {
+        next = (next + 1) & (QUERIES - 1);
+        return (Object) NEAREST.invokeExact(tree, (Object) points[next]);
+    }
+
+    @Benchmark
+    public Object range() throws Throwable {
+        next = (next + 1) & (QUERIES - 1);
+        return (Object) RANGE.invokeExact(tree, (Object) rects[next]);
+    }
+
+    // all the queries in one batch, the time is for QUERIES of them
+    @Benchmark
+    public double[] nearestBatch() throws Throwable {
+        NEAREST_BATCH.invokeExact(tree, (Object) points, (Object) nearestX, (Object) nearestY);
+        return nearestX;
+    }
+}
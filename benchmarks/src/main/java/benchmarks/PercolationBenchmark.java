@@ -0,0 +1,71 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Opens every site of an n-by-n system in a fixed random
+ *                  order through Percolation.open
+ **************************************************************************** */
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PercolationBenchmark {
+    private static final MethodHandle NEW = Handles.constructor("Percolation", int.class);
+    private static final MethodHandle OPEN = Handles.method("Percolation", "open", void.class,
+                                                            int.class, int.class);
+    private static final MethodHandle PERCOLATES = Handles.method("Percolation", "percolates",
+                                                                  boolean.class);
+
+    @Param({ "64", "256", "1024" })
+    private int n;
+
+    private int[] rows;
+    private int[] cols;
+
+    @Setup
+    public void setup() {
+        int sites = n * n;
+        int[] order = new int[sites];
+        for (int k = 0; k < sites; k++) order[k] = k;
+        Random random = new Random(42);
+        for (int k = sites - 1; k > 0; k--) {
+            int j = random.nextInt(k + 1);
+            int temp = order[k];
+            order[k] = order[j];
+            order[j] = temp;
+        }
+        rows = new int[sites];
+        cols = new int[sites];
+        for (int k = 0; k < sites; k++) {
+            rows[k] = (order[k] / n) + 1;
+            cols[k] = (order[k] % n) + 1;
+        }
+    }
+
+    @Benchmark
+    public boolean openAll() throws Throwable {
+        Object perc = (Object) NEW.invokeExact(n);
+        for (int k = 0; k < rows.length; k++) {
+            OPEN.invokeExact(perc, rows[k], cols[k]);
+        }
+        return (boolean) PERCOLATES.invokeExact(perc);
+    }
+}
@@ -0,0 +1,75 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Fills and drains a Deque from both ends and a
+ *                  RandomizedQueue with size items
+ **************************************************************************** */
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueuesBenchmark {
+    private static final MethodHandle NEW_DEQUE = Handles.constructor("Deque");
+    private static final MethodHandle ADD_FIRST = Handles.method("Deque", "addFirst", void.class,
+                                                                 Object.class);
+    private static final MethodHandle ADD_LAST = Handles.method("Deque", "addLast", void.class,
+                                                                Object.class);
+    private static final MethodHandle REMOVE_FIRST = Handles.method("Deque", "removeFirst",
+                                                                    Object.class);
+    private static final MethodHandle REMOVE_LAST = Handles.method("Deque", "removeLast",
+                                                                   Object.class);
+    private static final MethodHandle NEW_QUEUE = Handles.constructor("RandomizedQueue");
+    private static final MethodHandle ENQUEUE = Handles.method("RandomizedQueue", "enqueue",
+                                                               void.class, Object.class);
+    private static final MethodHandle DEQUEUE = Handles.method("RandomizedQueue", "dequeue",
+                                                               Object.class);
+    private static final MethodHandle SAMPLE = Handles.method("RandomizedQueue", "sample",
+                                                              Object.class);
+    private static final Integer ITEM = 1;
+
+    @Param({ "1000", "100000" })
+    private int size;
+
+    @Benchmark
+    public void dequeBothEnds(Blackhole bh) throws Throwable {
+        Object deque = (Object) NEW_DEQUE.invokeExact();
+        for (int i = 0; i < size; i++) {
+            if ((i & 1) == 0) ADD_FIRST.invokeExact(deque, (Object) ITEM);
+            else ADD_LAST.invokeExact(deque, (Object) ITEM);
+        }
+        for (int i = 0; i < size; i++) {
+            if ((i & 1) == 0) bh.consume((Object) REMOVE_FIRST.invokeExact(deque));
+            else bh.consume((Object) REMOVE_LAST.invokeExact(deque));
+        }
+    }
+
+    @Benchmark
+    public void randomizedQueue(Blackhole bh) throws Throwable {
+        Object queue = (Object) NEW_QUEUE.invokeExact();
+        for (int i = 0; i < size; i++) {
+            ENQUEUE.invokeExact(queue, (Object) ITEM);
+        }
+        for (int i = 0; i < size; i++) {
+            bh.consume((Object) SAMPLE.invokeExact(queue));
+            bh.consume((Object) DEQUEUE.invokeExact(queue));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    SAP.length between random pairs of vertices of a random
+ *                  rooted dag where every vertex points to one or two older ones
+ **************************************************************************** */
+package benchmarks;
+
+import edu.princeton.cs.algs4.Digraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SapBenchmark {
+    private static final MethodHandle NEW = Handles.constructor("SAP", Digraph.class);
+    private static final MethodHandle LENGTH = Handles.method("SAP", "length", int.class,
+                                                              int.class, int.class);
+    private static final int QUERIES = 1024;
+
+    @Param({ "10000", "100000" })
+    private int vertices;
+
+    private Object sap;
+    private int[] from;
+    private int[] to;
+    private int next;
+
+    @Setup
+    public void setup() throws Throwable {
+        Random random = new Random(42);
+        Digraph graph = new Digraph(vertices);
+        for (int v = 1; v < vertices; v++) {
+            graph.addEdge(v, random.nextInt(v));
+            if (random.nextBoolean()) graph.addEdge(v, random.nextInt(v));
+        }
+        sap = (Object) NEW.invokeExact((Object) graph);
+        from = new int[QUERIES];
+        to = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = random.nextInt(vertices);
+            to[i] = random.nextInt(vertices);
+        }
+    }
+
+    @Benchmark
+    public int length() throws Throwable {
+        next = (next + 1) & (QUERIES - 1);
+        return (int) LENGTH.invokeExact(sap, from[next], to[next]);
+    }
+}
@@ -0,0 +1,59 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    SeamCarver.findVerticalSeam on a size-by-size picture of
+ *                  random colors
+ **************************************************************************** */
+package benchmarks;
+
+import edu.princeton.cs.algs4.Picture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeamCarverBenchmark {
+    private static final MethodHandle NEW = Handles.constructor("SeamCarver", Picture.class);
+    private static final MethodHandle FIND_VERTICAL = Handles.method("SeamCarver",
+                                                                     "findVerticalSeam",
+                                                                     int[].class);
+
+    @Param({ "100", "500" })
+    private int size;
+
+    private Object carver;
+
+    @Setup
+    public void setup() throws Throwable {
+        Random random = new Random(42);
+        Picture picture = new Picture(size, size);
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                picture.set(col, row, new Color(random.nextInt(1 << 24)));
+            }
+        }
+        carver = (Object) NEW.invokeExact((Object) picture);
+    }
+
+    @Benchmark
+    public Object findVerticalSeam() throws Throwable {
+        return (Object) FIND_VERTICAL.invokeExact(carver);
+    }
+}
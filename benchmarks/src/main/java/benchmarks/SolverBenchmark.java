@@ -0,0 +1,111 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Solves puzzles made by sliding the blank of the goal board
+ *                  a fixed number of random moves with a fixed seed, so every
+ *                  run solves the same boards, or the puzzle files given with
+ *                  -p file=... in the format of the assignment
+ **************************************************************************** */
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+    private static final MethodHandle NEW_BOARD = Handles.constructor("Board", int[][].class);
+    private static final MethodHandle NEW_SOLVER = Handles.constructor("Solver",
+                                                                       Handles.type("Board"));
+    private static final MethodHandle MOVES = Handles.method("Solver", "moves", int.class);
+    private static final int[][] DIRS = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
+
+    @Param({ "3", "4" })
+    private int n;
+
+    @Param({ "10", "20", "30" })
+    private int scramble;
+
+    // a puzzle file read instead of the scramble, the repository ships none so the
+    // course files are passed in as -p file=puzzle3x3-20.txt,puzzle4x4-30.txt
+    @Param({ "" })
+    private String file;
+
+    private Object board;
+
+    @Setup
+    public void setup() throws Throwable {
+        int[][] tiles = file.isEmpty() ? scrambled() : read(file);
+        board = (Object) NEW_BOARD.invokeExact((Object) tiles);
+    }
+
+    // the goal board after scramble random moves that never undo the one before
+    private int[][] scrambled() {
+        int[][] tiles = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                tiles[i][j] = ((i * n) + j + 1) % (n * n);
+            }
+        }
+        Random random = new Random(42);
+        int row = n - 1;
+        int col = n - 1;
+        int last = -1;
+        for (int move = 0; move < scramble; ) {
+            int dir = random.nextInt(4);
+            int x = row + DIRS[dir][0];
+            int y = col + DIRS[dir][1];
+            // never undo the previous move
+            if (x < 0 || x >= n || y < 0 || y >= n || (dir ^ 1) == last) continue;
+            tiles[row][col] = tiles[x][y];
+            tiles[x][y] = 0;
+            row = x;
+            col = y;
+            last = dir;
+            move++;
+        }
+        return tiles;
+    }
+
+    // the dimension followed by the tiles row by row, 0 for the blank
+    private static int[][] read(String filename) {
+        try (Scanner in = new Scanner(new File(filename))) {
+            int size = in.nextInt();
+            int[][] tiles = new int[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    tiles[i][j] = in.nextInt();
+                }
+            }
+            return tiles;
+        }
+        catch (FileNotFoundException e) {
+            throw new IllegalArgumentException("no puzzle file " + filename, e);
+        }
+    }
+
+    @Benchmark
+    public int solve() throws Throwable {
+        Object solver = (Object) NEW_SOLVER.invokeExact(board);
+        return (int) MOVES.invokeExact(solver);
+    }
+}
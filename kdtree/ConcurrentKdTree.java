@@ -0,0 +1,201 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    A kd-tree that can be searched while other threads insert
+ *                  into it. The nodes never change: an insert copies the path
+ *                  from the root down to the new node and publishes the new
+ *                  root with one compare and set, so a search works on the
+ *                  tree as it was when it started and never waits for a lock.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Stack;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentKdTree {
+    private static final class Node {
+        private final Point2D point;
+        private final Node left, right;
+        private final boolean isVertical;
+        // shared by every copy of the node, the area does not change with its children
+        private final RectHV area;
+
+        private Node(Point2D point, boolean isVertical, RectHV area, Node left, Node right) {
+            this.point = point;
+            this.isVertical = isVertical;
+            this.area = area;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * a version of the tree, the root and the size change together
+     */
+    private static final class Snapshot {
+        private final Node root;
+        private final int size;
+
+        private Snapshot(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    private final AtomicReference<Snapshot> snapshot =
+            new AtomicReference<Snapshot>(new Snapshot(null, 0));
+
+    /**
+     * construct an empty set of points
+     */
+    public ConcurrentKdTree() {
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if empty and false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the size of the set
+     */
+    public int size() {
+        return snapshot.get().size;
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set), inserts of other
+     * threads at the same time are retried on the tree that won
+     *
+     * @param p the point to be inserted
+     */
+    public void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException();
+        while (true) {
+            Snapshot current = snapshot.get();
+            Node root = insert(current.root, p, null, false);
+            // the same root back means the point was there already
+            if (root == current.root) return;
+            if (snapshot.compareAndSet(current, new Snapshot(root, current.size + 1))) return;
+        }
+    }
+
+    /**
+     * the subtree with the point added
+     *
+     * @param node   the root of the subtree
+     * @param p      the point
+     * @param parent the node above the subtree, null for the root
+     * @param left   true if the subtree is on the left of the parent
+     * @return a copy of the subtree along the path to the new node, or node itself if
+     * the point is there already
+     */
+    private static Node insert(Node node, Point2D p, Node parent, boolean left) {
+        if (node == null) {
+            boolean vertical = parent == null || !parent.isVertical;
+            return new Node(p, vertical, area(parent, left), null, null);
+        }
+        if (node.point.equals(p)) return node;
+        if (node.isVertical ? node.point.x() > p.x() : node.point.y() > p.y()) {
+            Node child = insert(node.left, p, node, true);
+            if (child == node.left) return node;
+            return new Node(node.point, node.isVertical, node.area, child, node.right);
+        }
+        Node child = insert(node.right, p, node, false);
+        if (child == node.right) return node;
+        return new Node(node.point, node.isVertical, node.area, node.left, child);
+    }
+
+    // the area of a child of a node, the root covers the unit square
+    private static RectHV area(Node parent, boolean left) {
+        if (parent == null) return new RectHV(0, 0, 1, 1);
+        RectHV area = parent.area;
+        if (parent.isVertical) {
+            if (left) return new RectHV(area.xmin(), area.ymin(), parent.point.x(), area.ymax());
+            return new RectHV(parent.point.x(), area.ymin(), area.xmax(), area.ymax());
+        }
+        if (left) return new RectHV(area.xmin(), area.ymin(), area.xmax(), parent.point.y());
+        return new RectHV(area.xmin(), parent.point.y(), area.xmax(), area.ymax());
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to be checked
+     * @return true if it contains and false otherwise
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException();
+        Node node = snapshot.get().root;
+        while (node != null) {
+            if (node.point.equals(p)) return true;
+            boolean left = node.isVertical ? node.point.x() > p.x() : node.point.y() > p.y();
+            node = left ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary), as the set was
+     * when the search started
+     *
+     * @param rect the range rectangle used to check
+     * @return set of points inside the rectangle
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException();
+        Stack<Point2D> inRange = new Stack<Point2D>();
+        range(rect, snapshot.get().root, inRange);
+        return inRange;
+    }
+
+    // helper method
+    private static void range(RectHV rect, Node parent, Stack<Point2D> stack) {
+        if (parent == null || !rect.intersects(parent.area)) return;
+        if (rect.contains(parent.point)) stack.push(parent.point);
+        range(rect, parent.left, stack);
+        range(rect, parent.right, stack);
+    }
+
+    /**
+     * a nearest neighbor in the set to point p, as the set was when the search
+     * started; null if the set is empty
+     *
+     * @param p the point to be checked for neighbors
+     * @return the nearest neighbor point
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException();
+        Node root = snapshot.get().root;
+        if (root == null) return null;
+        return nearest(p, root, root.point);
+    }
+
+    // helper method
+    private static Point2D nearest(Point2D p, Node mroot, Point2D nearest) {
+        if (mroot == null) return nearest;
+        double nearestDist = nearest.distanceSquaredTo(p);
+        if (nearestDist >= mroot.area.distanceSquaredTo(p)) {
+            if (mroot.point.distanceSquaredTo(p) < nearestDist) {
+                nearest = mroot.point;
+            }
+            // if query point is inside the left side then recurse the left then right
+            if (mroot.left != null && mroot.left.area.contains(p)) {
+                nearest = nearest(p, mroot.left, nearest);
+                nearest = nearest(p, mroot.right, nearest);
+            }
+            else {
+                nearest = nearest(p, mroot.right, nearest);
+                nearest = nearest(p, mroot.left, nearest);
+            }
+        }
+        return nearest;
+    }
+}
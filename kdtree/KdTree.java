@@ -5,12 +5,29 @@
  *                  nearest neighbor using kd-trees
  **************************************************************************** */
 
+import edu.princeton.cs.algs4.MaxPQ;
 import edu.princeton.cs.algs4.Point2D;
 import edu.princeton.cs.algs4.RectHV;
 import edu.princeton.cs.algs4.Stack;
 import edu.princeton.cs.algs4.StdDraw;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+
 public class KdTree {
+    // subtrees with at most this many points are built by one thread
+    private static final int SEQUENTIAL_BUILD = 1 << 13;
+    // queries of a batch answered by one task
+    private static final int QUERIES_PER_TASK = 1 << 10;
+    // the batches order their queries along a hilbert curve through a grid this wide
+    private static final int HILBERT_SIDE = 1 << 15;
+
     private class Node {
         private Point2D point;
         private Node left, right;
@@ -44,6 +61,178 @@ public class KdTree {
         size = 0;
     }
 
+    /**
+     * construct a balanced tree of the given points, every node splits its points at
+     * the median so the depth is about lg n whatever the order of the points
+     *
+     * @param points the points, duplicates are kept once
+     */
+    public KdTree(Point2D[] points) {
+        this(points, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * construct a balanced tree of the points with the given coordinates
+     *
+     * @param x the x coordinates of the points
+     * @param y the y coordinates of the points
+     */
+    public KdTree(double[] x, double[] y) {
+        this(points(x, y), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * construct a balanced tree of the given points, the subtrees are built on the
+     * given pool
+     *
+     * @param points the points, duplicates are kept once
+     * @param pool   the pool the tree is built on
+     */
+    public KdTree(Point2D[] points, ForkJoinPool pool) {
+        if (points == null || pool == null) throw new IllegalArgumentException();
+        Point2D[] sorted = points.clone();
+        for (Point2D p : sorted) {
+            if (p == null) throw new IllegalArgumentException();
+        }
+        // equal points end up next to each other, the first of every run is kept, the
+        // sort is started from a task of the pool so it forks there and not in the
+        // common pool
+        pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(sorted)));
+        int count = 0;
+        for (Point2D p : sorted) {
+            if (count == 0 || !sorted[count - 1].equals(p)) sorted[count++] = p;
+        }
+        this.size = count;
+        this.root = count == 0 ? null : pool.invoke(new Build(sorted, 0, count, null, false));
+    }
+
+    private static Point2D[] points(double[] x, double[] y) {
+        if (x == null || y == null || x.length != y.length) throw new IllegalArgumentException();
+        Point2D[] points = new Point2D[x.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point2D(x[i], y[i]);
+        }
+        return points;
+    }
+
+    /**
+     * builds the subtree of a range of points on the calling thread
+     *
+     * @param points the points
+     * @param lo     the first point of the range
+     * @param hi     one past the last point of the range
+     * @param parent the node above the subtree, null for the root
+     * @param left   true if the subtree goes on the left of the parent
+     * @return the root of the subtree, null if the range is empty
+     */
+    private Node build(Point2D[] points, int lo, int hi, Node parent, boolean left) {
+        if (lo >= hi) return null;
+        boolean vertical = parent == null || !parent.isVertical;
+        int median = select(points, lo, hi, vertical);
+        Node node = new Node(points[median], vertical, area(parent, left));
+        node.left = build(points, lo, median, node, true);
+        node.right = build(points, median + 1, hi, node, false);
+        return node;
+    }
+
+    /**
+     * builds the subtrees of large ranges of points in parallel
+     */
+    private class Build extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+
+        private final Point2D[] points;
+        private final int lo;
+        private final int hi;
+        private final Node parent;
+        private final boolean left;
+
+        Build(Point2D[] points, int lo, int hi, Node parent, boolean left) {
+            this.points = points;
+            this.lo = lo;
+            this.hi = hi;
+            this.parent = parent;
+            this.left = left;
+        }
+
+        @Override
+        protected Node compute() {
+            if (hi - lo <= SEQUENTIAL_BUILD) return build(points, lo, hi, parent, left);
+            boolean vertical = parent == null || !parent.isVertical;
+            int median = select(points, lo, hi, vertical);
+            Node node = new Node(points[median], vertical, area(parent, left));
+            Build right = new Build(points, median + 1, hi, node, false);
+            right.fork();
+            node.left = new Build(points, lo, median, node, true).compute();
+            node.right = right.join();
+            return node;
+        }
+    }
+
+    /**
+     * moves the median of a range of points along a line to its place, with the
+     * smaller ones before it and the others after it
+     *
+     * @param points   the points
+     * @param lo       the first point of the range
+     * @param hi       one past the last point of the range
+     * @param vertical true to compare the x coordinates, false for the y ones
+     * @return the position of the median
+     */
+    private static int select(Point2D[] points, int lo, int hi, boolean vertical) {
+        int k = (lo + hi) >>> 1;
+        // 3-way quickselect, the points equal to the median on the line are moved
+        // next to it and the first of them is taken because insert() and contains()
+        // look for equal ones on the right
+        int from = lo;
+        int to = hi - 1;
+        while (true) {
+            double pivot = key(points[ThreadLocalRandom.current().nextInt(from, to + 1)],
+                               vertical);
+            int lt = from;
+            int gt = to;
+            int i = from;
+            while (i <= gt) {
+                double key = key(points[i], vertical);
+                if (key < pivot) swap(points, lt++, i++);
+                else if (key > pivot) swap(points, i, gt--);
+                else i++;
+            }
+            if (k < lt) to = lt - 1;
+            else if (k > gt) from = gt + 1;
+            else return lt;
+        }
+    }
+
+    private static double key(Point2D p, boolean vertical) {
+        return vertical ? p.x() : p.y();
+    }
+
+    private static void swap(Point2D[] points, int i, int j) {
+        Point2D t = points[i];
+        points[i] = points[j];
+        points[j] = t;
+    }
+
+    /**
+     * the area of a child of a node, the part of the area of the node on one side of
+     * its line
+     *
+     * @param parent the node, null for the root which covers the unit square
+     * @param left   true for the left (or lower) side
+     * @return the area of the child
+     */
+    private RectHV area(Node parent, boolean left) {
+        if (parent == null) return new RectHV(0, 0, 1, 1);
+        RectHV area = parent.area;
+        if (parent.isVertical) {
+            if (left) return new RectHV(area.xmin(), area.ymin(), parent.point.x(), area.ymax());
+            return new RectHV(parent.point.x(), area.ymin(), area.xmax(), area.ymax());
+        }
+        if (left) return new RectHV(area.xmin(), area.ymin(), area.xmax(), parent.point.y());
+        return new RectHV(area.xmin(), parent.point.y(), area.xmax(), area.ymax());
+    }
+
     /**
      * // is the set empty?
      *
@@ -70,42 +259,26 @@ public class KdTree {
      */
     public void insert(Point2D p) {
         if (p == null) throw new IllegalArgumentException();
-        if (!contains(p)) {
-            this.root = insert(this.root, p, true, new RectHV(0, 0, 1, 1));
+        if (root == null) {
+            root = new Node(p, true, area(null, false));
+            size++;
+            return;
         }
-    }
-
-    private Node insert(Node parent, Point2D p, boolean vertical, RectHV nodeArea) {
-        if (parent == null) {
-            parent = new Node(p, vertical, nodeArea);
-            this.size++;
-            return parent;
-        }
-        if (parent.isVertical) {
-            // if point in left side then insert on left subtree with appropriate area
-            if (parent.point.x() > p.x()) parent.left = insert(parent.left, p, !parent.isVertical,
-                                                               new RectHV(nodeArea.xmin(),
-                                                                          nodeArea.ymin(),
-                                                                          parent.point.x(),
-                                                                          nodeArea.ymax()));
-            else parent.right = insert(parent.right, p, !parent.isVertical,
-                                       new RectHV(parent.point.x(), nodeArea.ymin(),
-                                                  nodeArea.xmax(), nodeArea.ymax()));
-        }
-        else {
-            if (parent.point.y() > p.y()) parent.left = insert(parent.left, p, !parent.isVertical,
-                                                               new RectHV(nodeArea.xmin(),
-                                                                          nodeArea.ymin(),
-                                                                          nodeArea.xmax(),
-                                                                          parent.point.y())
-            );
-            else parent.right = insert(parent.right, p, !parent.isVertical,
-                                       new RectHV(nodeArea.xmin(),
-                                                  parent.point.y(),
-                                                  nodeArea.xmax(),
-                                                  nodeArea.ymax()));
+        // one descent that stops at an equal point, only the new node gets an area
+        Node parent = root;
+        while (!parent.point.equals(p)) {
+            boolean left = parent.isVertical ? parent.point.x() > p.x()
+                                             : parent.point.y() > p.y();
+            Node child = left ? parent.left : parent.right;
+            if (child == null) {
+                child = new Node(p, !parent.isVertical, area(parent, left));
+                if (left) parent.left = child;
+                else parent.right = child;
+                size++;
+                return;
+            }
+            parent = child;
         }
-        return parent;
     }
 
     /**
@@ -220,6 +393,277 @@ public class KdTree {
         return nearest;
     }
 
+    /**
+     * the k nearest neighbors in the set to point p, all the points if there are
+     * fewer than k
+     *
+     * @param p the point to be checked for neighbors
+     * @param k the number of neighbors
+     * @return the neighbors, the nearest one first
+     */
+    public Iterable<Point2D> nearest(Point2D p, int k) {
+        if (p == null || k < 0) throw new IllegalArgumentException();
+        Stack<Point2D> neighbors = new Stack<Point2D>();
+        if (k == 0 || isEmpty()) return neighbors;
+        // the k nearest points seen so far with the farthest one on top
+        MaxPQ<Point2D> nearest = new MaxPQ<Point2D>(p.distanceToOrder());
+        nearest(p, k, this.root, nearest);
+        while (!nearest.isEmpty()) {
+            neighbors.push(nearest.delMax());
+        }
+        return neighbors;
+    }
+
+    // helper method
+    private void nearest(Point2D p, int k, Node mroot, MaxPQ<Point2D> nearest) {
+        if (mroot == null) return;
+        // a subtree can only help while the queue is not full or its area is closer
+        // than the farthest point kept
+        if (nearest.size() == k
+                && mroot.area.distanceSquaredTo(p) > nearest.max().distanceSquaredTo(p)) return;
+        if (nearest.size() < k) nearest.insert(mroot.point);
+        else if (mroot.point.distanceSquaredTo(p) < nearest.max().distanceSquaredTo(p)) {
+            nearest.delMax();
+            nearest.insert(mroot.point);
+        }
+        if (mroot.left != null && mroot.left.area.contains(p)) {
+            nearest(p, k, mroot.left, nearest);
+            nearest(p, k, mroot.right, nearest);
+        }
+        else {
+            nearest(p, k, mroot.right, nearest);
+            nearest(p, k, mroot.left, nearest);
+        }
+    }
+
+    /**
+     * all points within a distance of point p (or at that distance)
+     *
+     * @param p the center of the circle
+     * @param r the radius of the circle
+     * @return set of points inside the circle
+     */
+    public Iterable<Point2D> withinRadius(Point2D p, double r) {
+        if (p == null || !(r >= 0)) throw new IllegalArgumentException();
+        Stack<Point2D> inRange = new Stack<Point2D>();
+        withinRadius(p, r * r, this.root, inRange);
+        return inRange;
+    }
+
+    // helper method
+    private void withinRadius(Point2D p, double r2, Node parent, Stack<Point2D> stack) {
+        if (parent == null || parent.area.distanceSquaredTo(p) > r2) return;
+        if (parent.point.distanceSquaredTo(p) <= r2) stack.push(parent.point);
+        withinRadius(p, r2, parent.left, stack);
+        withinRadius(p, r2, parent.right, stack);
+    }
+
+    /**
+     * the nearest neighbors of many points at once, the tree should not change while
+     * they are looked up
+     *
+     * @param queries the points to be checked for neighbors
+     * @param x       x[i] is set to the x coordinate of the neighbor of queries[i], NaN
+     *                if the set is empty
+     * @param y       the y coordinates of the neighbors
+     */
+    public void nearest(Point2D[] queries, double[] x, double[] y) {
+        nearest(queries, x, y, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * the nearest neighbors of many points at once looked up on the given pool, the
+     * queries are answered in the order of a hilbert curve through them so the
+     * queries of one thread walk down the same paths one after the other
+     *
+     * @param queries the points to be checked for neighbors
+     * @param x       x[i] is set to the x coordinate of the neighbor of queries[i], NaN
+     *                if the set is empty
+     * @param y       the y coordinates of the neighbors
+     * @param pool    the pool the queries are answered on
+     */
+    public void nearest(Point2D[] queries, double[] x, double[] y, ForkJoinPool pool) {
+        if (queries == null || x == null || y == null || pool == null) {
+            throw new IllegalArgumentException();
+        }
+        if (x.length < queries.length || y.length < queries.length) {
+            throw new IllegalArgumentException();
+        }
+        for (Point2D q : queries) {
+            if (q == null) throw new IllegalArgumentException();
+        }
+        int[] order = hilbertOrder(queries.length, i -> queries[i].x(), i -> queries[i].y(),
+                                   pool);
+        pool.invoke(new Queries(order, 0, order.length, i -> {
+            Point2D nearest = isEmpty() ? null : nearest(queries[i], this.root, this.root.point);
+            x[i] = nearest == null ? Double.NaN : nearest.x();
+            y[i] = nearest == null ? Double.NaN : nearest.y();
+        }));
+    }
+
+    /**
+     * the points inside many rectangles at once, the tree should not change while
+     * they are looked up
+     *
+     * @param rects   the range rectangles used to check
+     * @param offsets set to the start of the points of every rectangle, the points of
+     *                rects[i] are from offsets[i] to offsets[i + 1], the array has one
+     *                more entry than rects
+     * @param x       the x coordinates of the points
+     * @param y       the y coordinates of the points
+     * @return the number of points of all the rectangles, if it is more than the
+     * length of x or y only the offsets are set
+     */
+    public int range(RectHV[] rects, int[] offsets, double[] x, double[] y) {
+        return range(rects, offsets, x, y, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * the points inside many rectangles at once looked up on the given pool, one pass
+     * counts the points of every rectangle and a second one writes them where the
+     * counts say, both in the order of a hilbert curve through the centers
+     *
+     * @param rects   the range rectangles used to check
+     * @param offsets set to the start of the points of every rectangle, the points of
+     *                rects[i] are from offsets[i] to offsets[i + 1], the array has one
+     *                more entry than rects
+     * @param x       the x coordinates of the points
+     * @param y       the y coordinates of the points
+     * @param pool    the pool the queries are answered on
+     * @return the number of points of all the rectangles, if it is more than the
+     * length of x or y only the offsets are set
+     */
+    public int range(RectHV[] rects, int[] offsets, double[] x, double[] y, ForkJoinPool pool) {
+        if (rects == null || offsets == null || x == null || y == null || pool == null) {
+            throw new IllegalArgumentException();
+        }
+        if (offsets.length != rects.length + 1) throw new IllegalArgumentException();
+        for (RectHV rect : rects) {
+            if (rect == null) throw new IllegalArgumentException();
+        }
+        int[] order = hilbertOrder(rects.length, i -> (rects[i].xmin() + rects[i].xmax()) / 2,
+                                   i -> (rects[i].ymin() + rects[i].ymax()) / 2, pool);
+        offsets[0] = 0;
+        pool.invoke(new Queries(order, 0, order.length,
+                                i -> offsets[i + 1] = count(rects[i], this.root)));
+        long total = 0;
+        for (int i = 1; i < offsets.length; i++) {
+            total += offsets[i];
+            if (total > Integer.MAX_VALUE) throw new IllegalStateException("too many points");
+            offsets[i] = (int) total;
+        }
+        if (total > x.length || total > y.length) return (int) total;
+        pool.invoke(new Queries(order, 0, order.length,
+                                i -> range(rects[i], this.root, x, y, offsets[i])));
+        return (int) total;
+    }
+
+    // helper method
+    private int count(RectHV rect, Node parent) {
+        if (parent == null || !rect.intersects(parent.area)) return 0;
+        int count = rect.contains(parent.point) ? 1 : 0;
+        return count + count(rect, parent.left) + count(rect, parent.right);
+    }
+
+    // helper method, returns the position after the points written
+    private int range(RectHV rect, Node parent, double[] x, double[] y, int at) {
+        if (parent == null || !rect.intersects(parent.area)) return at;
+        if (rect.contains(parent.point)) {
+            x[at] = parent.point.x();
+            y[at] = parent.point.y();
+            at++;
+        }
+        at = range(rect, parent.left, x, y, at);
+        return range(rect, parent.right, x, y, at);
+    }
+
+    /**
+     * answers a range of the queries of a batch, splitting it in halves for other
+     * threads to take
+     */
+    private static class Queries extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] order;
+        private final int lo;
+        private final int hi;
+        private final IntConsumer query;
+
+        Queries(int[] order, int lo, int hi, IntConsumer query) {
+            this.order = order;
+            this.lo = lo;
+            this.hi = hi;
+            this.query = query;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= QUERIES_PER_TASK) {
+                for (int k = lo; k < hi; k++) {
+                    query.accept(order[k]);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Queries(order, lo, mid, query), new Queries(order, mid, hi, query));
+        }
+    }
+
+    /**
+     * sorts the queries of a batch along a hilbert curve through the unit square
+     *
+     * @param n    the number of queries
+     * @param x    the x coordinate of a query
+     * @param y    the y coordinate of a query
+     * @param pool the pool the queries are sorted on
+     * @return the queries in the order of the curve
+     */
+    private static int[] hilbertOrder(int n, IntToDoubleFunction x, IntToDoubleFunction y,
+                                      ForkJoinPool pool) {
+        // the position on the curve takes the upper bits and the query the lower ones
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (hilbert(x.applyAsDouble(i), y.applyAsDouble(i)) << 32) | i;
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(keys)));
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * the position of a point along a hilbert curve, points outside the unit square
+     * are moved to its edge
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @return the number of cells of the grid the curve goes through before the cell
+     * of the point
+     */
+    private static long hilbert(double x, double y) {
+        int hx = (int) (Math.min(Math.max(x, 0), 1) * (HILBERT_SIDE - 1));
+        int hy = (int) (Math.min(Math.max(y, 0), 1) * (HILBERT_SIDE - 1));
+        long d = 0;
+        for (int s = HILBERT_SIDE >>> 1; s > 0; s >>>= 1) {
+            int rx = (hx & s) != 0 ? 1 : 0;
+            int ry = (hy & s) != 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // turn the quadrant so the curve inside it starts where the last one ended
+            if (ry == 0) {
+                if (rx == 1) {
+                    hx = HILBERT_SIDE - 1 - hx;
+                    hy = HILBERT_SIDE - 1 - hy;
+                }
+                int t = hx;
+                hx = hy;
+                hy = t;
+            }
+        }
+        return d;
+    }
+
     public static void main(String[] args) {
         // KdTree tree = new KdTree();
         // tree.insert(new Point2D(0.7, 0.2));
@@ -0,0 +1,318 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    A kd-tree that cannot change once built, kept in two arrays
+ *                  of coordinates instead of nodes. The tree is left balanced
+ *                  so node i has its children at 2i + 1 and 2i + 2, and the
+ *                  area of a node is worked out on the way down instead of
+ *                  being stored, which takes 16 bytes per point.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Stack;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class StaticKdTree {
+    // subtrees with at most this many points are built by one thread
+    private static final int SEQUENTIAL_BUILD = 1 << 13;
+
+    // the point of node i is (x[i], y[i]), the nodes at even depths split on x
+    private final double[] x;
+    private final double[] y;
+    private final int size;
+    // the smallest rectangle around all the points
+    private final double xmin, ymin, xmax, ymax;
+
+    /**
+     * construct the tree of the given points
+     *
+     * @param points the points, duplicates are kept once
+     */
+    public StaticKdTree(Point2D[] points) {
+        this(points, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * construct the tree of the points with the given coordinates
+     *
+     * @param x the x coordinates of the points
+     * @param y the y coordinates of the points
+     */
+    public StaticKdTree(double[] x, double[] y) {
+        this(points(x, y), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * construct the tree of the given points, the subtrees are built on the given pool
+     *
+     * @param points the points, duplicates are kept once
+     * @param pool   the pool the tree is built on
+     */
+    public StaticKdTree(Point2D[] points, ForkJoinPool pool) {
+        if (points == null || pool == null) throw new IllegalArgumentException();
+        Point2D[] sorted = points.clone();
+        for (Point2D p : sorted) {
+            if (p == null) throw new IllegalArgumentException();
+        }
+        // sorted from a task of the pool so the sort forks there and not in the common pool
+        pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(sorted)));
+        int count = 0;
+        for (Point2D p : sorted) {
+            if (count == 0 || !sorted[count - 1].equals(p)) sorted[count++] = p;
+        }
+        this.size = count;
+        double[] px = new double[count];
+        double[] py = new double[count];
+        double left = Double.POSITIVE_INFINITY, bottom = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY, top = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            px[i] = sorted[i].x();
+            py[i] = sorted[i].y();
+            left = Math.min(left, px[i]);
+            right = Math.max(right, px[i]);
+            bottom = Math.min(bottom, py[i]);
+            top = Math.max(top, py[i]);
+        }
+        this.xmin = left;
+        this.ymin = bottom;
+        this.xmax = right;
+        this.ymax = top;
+        this.x = new double[count];
+        this.y = new double[count];
+        if (count > 0) pool.invoke(new Build(px, py, 0, count, 0));
+    }
+
+    private static Point2D[] points(double[] x, double[] y) {
+        if (x == null || y == null || x.length != y.length) throw new IllegalArgumentException();
+        Point2D[] points = new Point2D[x.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point2D(x[i], y[i]);
+        }
+        return points;
+    }
+
+    /**
+     * puts the median of a range of points at a node and the points before and after
+     * it in the subtrees of the node
+     */
+    private class Build extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] px;
+        private final double[] py;
+        private final int lo;
+        private final int hi;
+        private final int node;
+
+        Build(double[] px, double[] py, int lo, int hi, int node) {
+            this.px = px;
+            this.py = py;
+            this.lo = lo;
+            this.hi = hi;
+            this.node = node;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SEQUENTIAL_BUILD) {
+                build(px, py, lo, hi, node);
+                return;
+            }
+            int median = split(px, py, lo, hi, node);
+            invokeAll(new Build(px, py, lo, median, (2 * node) + 1),
+                      new Build(px, py, median + 1, hi, (2 * node) + 2));
+        }
+    }
+
+    private void build(double[] px, double[] py, int lo, int hi, int node) {
+        if (lo >= hi) return;
+        int median = split(px, py, lo, hi, node);
+        build(px, py, lo, median, (2 * node) + 1);
+        build(px, py, median + 1, hi, (2 * node) + 2);
+    }
+
+    /**
+     * moves the point that goes at a node to the position that leaves a left
+     * balanced number of points before it, smaller or equal along the line of the
+     * node, and stores it at the node
+     *
+     * @return the position of the point
+     */
+    private int split(double[] px, double[] py, int lo, int hi, int node) {
+        boolean vertical = (31 - Integer.numberOfLeadingZeros(node + 1)) % 2 == 0;
+        double[] keys = vertical ? px : py;
+        int k = lo + leftSize(hi - lo);
+        // 3-way quickselect, points equal to the median may end up on either side
+        // so the queries look at both sides of a line a point lies on
+        int from = lo;
+        int to = hi - 1;
+        while (true) {
+            double pivot = keys[ThreadLocalRandom.current().nextInt(from, to + 1)];
+            int lt = from;
+            int gt = to;
+            int i = from;
+            while (i <= gt) {
+                if (keys[i] < pivot) swap(px, py, lt++, i++);
+                else if (keys[i] > pivot) swap(px, py, i, gt--);
+                else i++;
+            }
+            if (k < lt) to = lt - 1;
+            else if (k > gt) from = gt + 1;
+            else break;
+        }
+        x[node] = px[k];
+        y[node] = py[k];
+        return k;
+    }
+
+    /**
+     * the size of the left subtree of a left balanced tree, every level is full but
+     * the last one which is filled from the left
+     *
+     * @param n the size of the tree
+     * @return the size of its left subtree
+     */
+    private static int leftSize(int n) {
+        if (n <= 1) return 0;
+        int full = Integer.highestOneBit(n);
+        int half = full >> 1;
+        return (half - 1) + Math.min(n - (full - 1), half);
+    }
+
+    private static void swap(double[] px, double[] py, int i, int j) {
+        double t = px[i];
+        px[i] = px[j];
+        px[j] = t;
+        t = py[i];
+        py[i] = py[j];
+        py[j] = t;
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if empty and false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the size of the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to be checked
+     * @return true if it contains and false otherwise
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException();
+        return contains(0, true, p.x(), p.y());
+    }
+
+    private boolean contains(int node, boolean vertical, double px, double py) {
+        if (node >= size) return false;
+        if (x[node] == px && y[node] == py) return true;
+        double key = vertical ? px : py;
+        double split = vertical ? x[node] : y[node];
+        return (key <= split && contains((2 * node) + 1, !vertical, px, py))
+                || (key >= split && contains((2 * node) + 2, !vertical, px, py));
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the range rectangle used to check
+     * @return set of points inside the rectangle
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException();
+        Stack<Point2D> inRange = new Stack<Point2D>();
+        range(rect, 0, true, inRange);
+        return inRange;
+    }
+
+    private void range(RectHV rect, int node, boolean vertical, Stack<Point2D> stack) {
+        if (node >= size) return;
+        double px = x[node];
+        double py = y[node];
+        if (px >= rect.xmin() && px <= rect.xmax() && py >= rect.ymin() && py <= rect.ymax()) {
+            stack.push(new Point2D(px, py));
+        }
+        double split = vertical ? px : py;
+        if ((vertical ? rect.xmin() : rect.ymin()) <= split) {
+            range(rect, (2 * node) + 1, !vertical, stack);
+        }
+        if ((vertical ? rect.xmax() : rect.ymax()) >= split) {
+            range(rect, (2 * node) + 2, !vertical, stack);
+        }
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to be checked for neighbors
+     * @return the nearest neighbor point
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException();
+        if (isEmpty()) return null;
+        int nearest = nearest(p.x(), p.y(), 0, true, xmin, ymin, xmax, ymax, 0);
+        return new Point2D(x[nearest], y[nearest]);
+    }
+
+    // the area of the node is (left, bottom) to (right, top)
+    private int nearest(double px, double py, int node, boolean vertical, double left,
+                        double bottom, double right, double top, int nearest) {
+        if (node >= size) return nearest;
+        double nearestDist = distanceSquared(nearest, px, py);
+        double dx = px < left ? left - px : px > right ? px - right : 0;
+        double dy = py < bottom ? bottom - py : py > top ? py - top : 0;
+        if ((dx * dx) + (dy * dy) > nearestDist) return nearest;
+        if (distanceSquared(node, px, py) < nearestDist) nearest = node;
+        int lower = (2 * node) + 1;
+        int upper = (2 * node) + 2;
+        // search the side of the line the query point is on first
+        if (vertical) {
+            double split = x[node];
+            if (px < split) {
+                nearest = nearest(px, py, lower, false, left, bottom, split, top, nearest);
+                nearest = nearest(px, py, upper, false, split, bottom, right, top, nearest);
+            }
+            else {
+                nearest = nearest(px, py, upper, false, split, bottom, right, top, nearest);
+                nearest = nearest(px, py, lower, false, left, bottom, split, top, nearest);
+            }
+        }
+        else {
+            double split = y[node];
+            if (py < split) {
+                nearest = nearest(px, py, lower, true, left, bottom, right, split, nearest);
+                nearest = nearest(px, py, upper, true, left, split, right, top, nearest);
+            }
+            else {
+                nearest = nearest(px, py, upper, true, left, split, right, top, nearest);
+                nearest = nearest(px, py, lower, true, left, bottom, right, split, nearest);
+            }
+        }
+        return nearest;
+    }
+
+    private double distanceSquared(int node, double px, double py) {
+        double dx = x[node] - px;
+        double dy = y[node] - py;
+        return (dx * dx) + (dy * dy);
+    }
+}
@@ -0,0 +1,255 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Checks the kd-trees against the brute force PointSET on
+ *                  points from a fixed seed, the points sit on a coarse grid so
+ *                  there are duplicates and points on the splitting lines
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KdTreeCrossCheckTest {
+    private static final long SEED = 20261018L;
+    private static final int[] SIZES = { 0, 1, 2, 3, 10, 100, 1000 };
+    private static final int QUERIES = 200;
+    // the coordinates are multiples of 1 / GRID
+    private static final int GRID = 32;
+
+    @Test
+    public void everyTreeMatchesPointSET() {
+        Random random = new Random(SEED);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int n : SIZES) {
+                Point2D[] points = points(n, random);
+                double[] x = new double[n];
+                double[] y = new double[n];
+                PointSET expected = new PointSET();
+                KdTree inserted = new KdTree();
+                ConcurrentKdTree concurrent = new ConcurrentKdTree();
+                for (int i = 0; i < n; i++) {
+                    x[i] = points[i].x();
+                    y[i] = points[i].y();
+                    expected.insert(points[i]);
+                    inserted.insert(points[i]);
+                    concurrent.insert(points[i]);
+                }
+                KdTree bulk = new KdTree(points);
+                KdTree coordinates = new KdTree(x, y);
+                KdTree pooled = new KdTree(points, pool);
+                StaticKdTree fixed = new StaticKdTree(points, pool);
+                StaticKdTree fixedCoordinates = new StaticKdTree(x, y);
+                for (int q = 0; q < QUERIES; q++) {
+                    Point2D p = point(random);
+                    RectHV rect = rect(random);
+                    int size = expected.size();
+                    assertEquals(size, inserted.size(), "n=" + n);
+                    assertEquals(size, bulk.size(), "n=" + n);
+                    assertEquals(size, coordinates.size(), "n=" + n);
+                    assertEquals(size, pooled.size(), "n=" + n);
+                    assertEquals(size, fixed.size(), "n=" + n);
+                    assertEquals(size, fixedCoordinates.size(), "n=" + n);
+                    assertEquals(size, concurrent.size(), "n=" + n);
+
+                    boolean contains = expected.contains(p);
+                    assertEquals(contains, inserted.contains(p), "n=" + n + " " + p);
+                    assertEquals(contains, bulk.contains(p), "n=" + n + " " + p);
+                    assertEquals(contains, coordinates.contains(p), "n=" + n + " " + p);
+                    assertEquals(contains, pooled.contains(p), "n=" + n + " " + p);
+                    assertEquals(contains, fixed.contains(p), "n=" + n + " " + p);
+                    assertEquals(contains, fixedCoordinates.contains(p), "n=" + n + " " + p);
+                    assertEquals(contains, concurrent.contains(p), "n=" + n + " " + p);
+
+                    ArrayList<Point2D> range = sorted(expected.range(rect));
+                    assertEquals(range, sorted(inserted.range(rect)), "n=" + n + " " + rect);
+                    assertEquals(range, sorted(bulk.range(rect)), "n=" + n + " " + rect);
+                    assertEquals(range, sorted(coordinates.range(rect)), "n=" + n + " " + rect);
+                    assertEquals(range, sorted(pooled.range(rect)), "n=" + n + " " + rect);
+                    assertEquals(range, sorted(fixed.range(rect)), "n=" + n + " " + rect);
+                    assertEquals(range, sorted(fixedCoordinates.range(rect)),
+                                 "n=" + n + " " + rect);
+                    assertEquals(range, sorted(concurrent.range(rect)), "n=" + n + " " + rect);
+
+                    // ties between points at the same distance may go either way
+                    Point2D nearest = expected.nearest(p);
+                    assertNearest(nearest, inserted.nearest(p), p);
+                    assertNearest(nearest, bulk.nearest(p), p);
+                    assertNearest(nearest, coordinates.nearest(p), p);
+                    assertNearest(nearest, pooled.nearest(p), p);
+                    assertNearest(nearest, fixed.nearest(p), p);
+                    assertNearest(nearest, fixedCoordinates.nearest(p), p);
+                    assertNearest(nearest, concurrent.nearest(p), p);
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void nearestKAndWithinRadiusMatchBruteForce() {
+        Random random = new Random(SEED);
+        for (int n : SIZES) {
+            Point2D[] points = points(n, random);
+            KdTree tree = new KdTree(points);
+            PointSET set = new PointSET();
+            for (Point2D p : points) {
+                set.insert(p);
+            }
+            for (int q = 0; q < QUERIES; q++) {
+                Point2D p = point(random);
+                // the distances of every point of the set from p, nearest first
+                ArrayList<Double> distances = new ArrayList<Double>();
+                for (Point2D point : set.range(new RectHV(0, 0, 1, 1))) {
+                    distances.add(point.distanceSquaredTo(p));
+                }
+                Collections.sort(distances);
+
+                int k = random.nextInt(n + 2);
+                ArrayList<Double> neighbors = new ArrayList<Double>();
+                for (Point2D point : tree.nearest(p, k)) {
+                    neighbors.add(point.distanceSquaredTo(p));
+                }
+                assertEquals(distances.subList(0, Math.min(k, distances.size())), neighbors,
+                             "n=" + n + " k=" + k + " " + p);
+
+                double r = random.nextInt(GRID / 2) / (double) GRID;
+                ArrayList<Point2D> within = new ArrayList<Point2D>();
+                for (Point2D point : set.range(new RectHV(0, 0, 1, 1))) {
+                    if (point.distanceSquaredTo(p) <= r * r) within.add(point);
+                }
+                Collections.sort(within);
+                assertEquals(within, sorted(tree.withinRadius(p, r)), "n=" + n + " r=" + r);
+            }
+        }
+    }
+
+    @Test
+    public void batchQueriesMatchSingleQueries() {
+        Random random = new Random(SEED);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int n : SIZES) {
+                KdTree tree = new KdTree(points(n, random));
+                Point2D[] queries = new Point2D[QUERIES];
+                RectHV[] rects = new RectHV[QUERIES];
+                for (int q = 0; q < QUERIES; q++) {
+                    queries[q] = point(random);
+                    rects[q] = rect(random);
+                }
+
+                double[] x = new double[QUERIES];
+                double[] y = new double[QUERIES];
+                tree.nearest(queries, x, y, pool);
+                for (int q = 0; q < QUERIES; q++) {
+                    Point2D nearest = tree.nearest(queries[q]);
+                    if (nearest == null) {
+                        assertTrue(Double.isNaN(x[q]) && Double.isNaN(y[q]), "n=" + n);
+                    }
+                    else {
+                        assertNearest(nearest, new Point2D(x[q], y[q]), queries[q]);
+                    }
+                }
+
+                int[] offsets = new int[QUERIES + 1];
+                int total = tree.range(rects, offsets, new double[0], new double[0], pool);
+                double[] rx = new double[total];
+                double[] ry = new double[total];
+                assertEquals(total, tree.range(rects, offsets, rx, ry, pool), "n=" + n);
+                assertEquals(0, offsets[0]);
+                assertEquals(total, offsets[QUERIES]);
+                for (int q = 0; q < QUERIES; q++) {
+                    ArrayList<Point2D> batch = new ArrayList<Point2D>();
+                    for (int i = offsets[q]; i < offsets[q + 1]; i++) {
+                        batch.add(new Point2D(rx[i], ry[i]));
+                    }
+                    Collections.sort(batch);
+                    assertEquals(sorted(tree.range(rects[q])), batch, "n=" + n + " " + rects[q]);
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentInsertsKeepEveryPoint() throws InterruptedException {
+        Random random = new Random(SEED);
+        Point2D[] points = points(4000, random);
+        PointSET expected = new PointSET();
+        for (Point2D p : points) {
+            expected.insert(p);
+        }
+        ConcurrentKdTree tree = new ConcurrentKdTree();
+        // every thread inserts every point so they race on the same paths
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int start = t * points.length / threads.length;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < points.length; i++) {
+                    tree.insert(points[(start + i) % points.length]);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(expected.size(), tree.size());
+        RectHV all = new RectHV(0, 0, 1, 1);
+        assertEquals(sorted(expected.range(all)), sorted(tree.range(all)));
+        for (Point2D p : points) {
+            assertTrue(tree.contains(p), p.toString());
+        }
+    }
+
+    private static void assertNearest(Point2D expected, Point2D actual, Point2D p) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.distanceSquaredTo(p), actual.distanceSquaredTo(p), 0.0,
+                     "nearest of " + p);
+    }
+
+    private static ArrayList<Point2D> sorted(Iterable<Point2D> points) {
+        ArrayList<Point2D> list = new ArrayList<Point2D>();
+        for (Point2D p : points) {
+            list.add(p);
+        }
+        Collections.sort(list);
+        return list;
+    }
+
+    private static Point2D[] points(int n, Random random) {
+        Point2D[] points = new Point2D[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = point(random);
+        }
+        return points;
+    }
+
+    private static Point2D point(Random random) {
+        return new Point2D(random.nextInt(GRID + 1) / (double) GRID,
+                           random.nextInt(GRID + 1) / (double) GRID);
+    }
+
+    private static RectHV rect(Random random) {
+        Point2D a = point(random);
+        Point2D b = point(random);
+        return new RectHV(Math.min(a.x(), b.x()), Math.min(a.y(), b.y()),
+                          Math.max(a.x(), b.x()), Math.max(a.y(), b.y()));
+    }
+}
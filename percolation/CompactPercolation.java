@@ -0,0 +1,126 @@
+/* *****************************************************************************
+ *  Last modified:     10/18/2026
+ *  Description:       Same api as Percolation but backed by LatticePercolation
+ *                     on the square lattice, so the open sites are packed into
+ *                     a bitset and a single union-find array remembers in its
+ *                     roots if a component touches the top or bottom
+ **************************************************************************** */
+public class CompactPercolation {
+    // the same limit as Percolation, n * n sites still fit in an int
+    private static final int MAX_N = 46340;
+
+    private final int n;
+    private final LatticePercolation perc;
+
+    /**
+     * creates the percolation program where it blocks out every grid initially
+     *
+     * @param n the number of grids on every row/column
+     */
+    public CompactPercolation(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The N value has to be grater than 0");
+        }
+        if (n > MAX_N) {
+            throw new IllegalArgumentException("The N value cannot be greater than " + MAX_N);
+        }
+        this.n = n;
+        this.perc = new LatticePercolation(Lattice.square(n));
+    }
+
+    /**
+     * opens a grid and joins it with every open neighbor, the flags of the new root
+     * tell right away if the plane percolates so there is no virtual top or bottom
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     */
+    public void open(int row, int col) {
+        validateCorners(row, col);
+        perc.openSite(toIndex(row, col));
+    }
+
+    /**
+     * checks if a grid is open or not open
+     *
+     * @param row the x value of the grid
+     * @param col the y value of the grid
+     * @return true if open and false if not
+     */
+    public boolean isOpen(int row, int col) {
+        validateCorners(row, col);
+        return perc.isOpen(toIndex(row, col));
+    }
+
+    /**
+     * checks if the grid is full or not by checking whether its root touches the top,
+     * only components that were joined to the top row ever get that flag so there
+     * is no backwash through the bottom
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     * @return true if full and false if not
+     */
+    public boolean isFull(int row, int col) {
+        validateCorners(row, col);
+        return perc.isFull(toIndex(row, col));
+    }
+
+    /**
+     * the number of open sites in the component of the grid
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     * @return the size of the component, 0 if the grid is blocked
+     */
+    public int clusterSize(int row, int col) {
+        validateCorners(row, col);
+        return perc.clusterSize(toIndex(row, col));
+    }
+
+    /**
+     * returns the number of open sites for the game
+     *
+     * @return the number of open sites
+     */
+    public int numberOfOpenSites() {
+        return perc.numberOfOpenSites();
+    }
+
+    /**
+     * checks if the plane percolates, which is remembered the moment a component
+     * touching both the top and the bottom is made
+     *
+     * @return true if percolates and false otherwise
+     */
+    public boolean percolates() {
+        return perc.percolates();
+    }
+
+    /**
+     * checks if the x and y value of a grid is inside the plane
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     */
+    private void validateCorners(int row, int col) {
+        if (row < 1 || row > this.n || col < 1 || col > this.n) {
+            throw new java.lang.IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * changes the grid x and y value into the site of the square lattice
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     * @return the index of the grid
+     */
+    private int toIndex(int row, int col) {
+        return (this.n * (row - 1)) + (col - 1);
+    }
+
+    public static void main(String[] args) {
+
+    }
+}
@@ -0,0 +1,360 @@
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.Arrays;
+
+/* *****************************************************************************
+ *  Last modified:     10/18/2026
+ *  Description:       Percolation where sites can be closed again. Opens, closes
+ *                     and queries are recorded and the queries are answered
+ *                     offline: every connection lives for an interval of
+ *                     queries, the intervals are spread over a segment tree and
+ *                     a depth first walk of the tree unions them in a
+ *                     union-find that can roll its unions back
+ **************************************************************************** */
+public class DynamicPercolation {
+    private final int n;
+    private final int top;
+    private final int bottom;
+    // the query count when a site was opened, -1 while it is blocked
+    private final int[] openedAt;
+    private int openSites;
+
+    // connections that have already ended, live for queries [from, to)
+    private int[] edgeA = new int[16];
+    private int[] edgeB = new int[16];
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private int edges;
+
+    // the site of every query, -1 for percolates, and if that site was open
+    private int[] querySite = new int[16];
+    private boolean[] queryOpen = new boolean[16];
+    private int queries;
+
+    // state of the offline walk
+    private int[] parent;
+    private int[] size;
+    private int[] history;
+    private int historySize;
+    private int[] nodeStart;
+    private int[] nodeEdges;
+
+    /**
+     * creates the percolation program where it blocks out every grid initially
+     *
+     * @param n the number of grids on every row/column
+     */
+    public DynamicPercolation(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The N value has to be grater than 0");
+        }
+        if (n > 46340) throw new IllegalArgumentException("The N value is too big: " + n);
+        this.n = n;
+        this.top = n * n;
+        this.bottom = (n * n) + 1;
+        this.openedAt = new int[n * n];
+        Arrays.fill(openedAt, -1);
+    }
+
+    /**
+     * opens a grid, nothing happens if it is already open
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     */
+    public void open(int row, int col) {
+        validateCorners(row, col);
+        int site = toIndex(row, col);
+        if (openedAt[site] >= 0) return;
+        openedAt[site] = queries;
+        openSites++;
+    }
+
+    /**
+     * closes a grid again, every connection it had ends with the queries made so far
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     */
+    public void close(int row, int col) {
+        validateCorners(row, col);
+        int site = toIndex(row, col);
+        if (openedAt[site] < 0) return;
+        endConnections(site, queries);
+        openedAt[site] = -1;
+        openSites--;
+    }
+
+    /**
+     * checks if a grid is open right now
+     *
+     * @param row the x value of the grid
+     * @param col the y value of the grid
+     * @return true if open and false if not
+     */
+    public boolean isOpen(int row, int col) {
+        validateCorners(row, col);
+        return openedAt[toIndex(row, col)] >= 0;
+    }
+
+    /**
+     * returns the number of open sites right now
+     *
+     * @return the number of open sites
+     */
+    public int numberOfOpenSites() {
+        return this.openSites;
+    }
+
+    /**
+     * records the question of whether the plane percolates right now
+     *
+     * @return the index of the answer in answers()
+     */
+    public int queryPercolates() {
+        return addQuery(-1, true);
+    }
+
+    /**
+     * records the question of whether a grid is full right now
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     * @return the index of the answer in answers()
+     */
+    public int queryFull(int row, int col) {
+        validateCorners(row, col);
+        int site = toIndex(row, col);
+        return addQuery(site, openedAt[site] >= 0);
+    }
+
+    /**
+     * answers every query recorded so far, more operations and queries can follow
+     *
+     * @return the answers in the order the queries were made
+     */
+    public boolean[] answers() {
+        boolean[] answers = new boolean[queries];
+        if (queries == 0) return answers;
+
+        // close every open site so the connections still alive end at the last query,
+        // then put them back afterwards
+        int ended = edges;
+        int[] reopened = Arrays.copyOf(openedAt, openedAt.length);
+        for (int site = 0; site < top; site++) {
+            if (openedAt[site] < 0) continue;
+            endConnections(site, queries);
+            openedAt[site] = -1;
+        }
+
+        int leaves = queries;
+        nodeStart = new int[(4 * leaves) + 1];
+        for (int e = 0; e < edges; e++) {
+            insert(1, 0, leaves, e, true);
+        }
+        for (int node = 1; node < nodeStart.length; node++) {
+            nodeStart[node] += nodeStart[node - 1];
+        }
+        nodeEdges = new int[nodeStart[nodeStart.length - 1]];
+        for (int e = edges - 1; e >= 0; e--) {
+            insert(1, 0, leaves, e, false);
+        }
+
+        parent = new int[top + 2];
+        size = new int[top + 2];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        history = new int[top + 2];
+        historySize = 0;
+        // the connections to the bottom would let fullness leak back up through a
+        // percolating plane, so full queries get their own walk without them
+        walk(1, 0, leaves, answers, true);
+        walk(1, 0, leaves, answers, false);
+
+        edges = ended;
+        System.arraycopy(reopened, 0, openedAt, 0, reopened.length);
+        nodeStart = null;
+        nodeEdges = null;
+        parent = null;
+        size = null;
+        history = null;
+        return answers;
+    }
+
+    /**
+     * adds an edge to the segment tree nodes covering its interval, first counting the
+     * edges of every node and then filling them in from the back
+     *
+     * @param node  the segment tree node
+     * @param lo    the first query of the node
+     * @param hi    one past the last query of the node
+     * @param e     the edge
+     * @param count true to count the edge, false to store it
+     */
+    private void insert(int node, int lo, int hi, int e, boolean count) {
+        if (edgeTo[e] <= lo || hi <= edgeFrom[e]) return;
+        if (edgeFrom[e] <= lo && hi <= edgeTo[e]) {
+            if (count) nodeStart[node]++;
+            else nodeEdges[--nodeStart[node]] = e;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        insert(2 * node, lo, mid, e, count);
+        insert((2 * node) + 1, mid, hi, e, count);
+    }
+
+    /**
+     * unions the edges of a node, answers the query if it is a leaf or walks its
+     * children otherwise, then rolls its unions back
+     *
+     * @param node       the segment tree node
+     * @param lo         the first query of the node
+     * @param hi         one past the last query of the node
+     * @param answers    where the answers go
+     * @param percolates true to answer the percolates queries, false for the full ones
+     */
+    private void walk(int node, int lo, int hi, boolean[] answers, boolean percolates) {
+        int mark = historySize;
+        for (int k = nodeStart[node]; k < nodeStart[node + 1]; k++) {
+            int e = nodeEdges[k];
+            if (percolates || edgeB[e] != bottom) union(edgeA[e], edgeB[e]);
+        }
+        if (hi - lo == 1) {
+            if (querySite[lo] < 0) {
+                if (percolates) answers[lo] = find(top) == find(bottom);
+            }
+            else if (!percolates) {
+                answers[lo] = queryOpen[lo] && find(querySite[lo]) == find(top);
+            }
+        }
+        else {
+            int mid = (lo + hi) >>> 1;
+            walk(2 * node, lo, mid, answers, percolates);
+            walk((2 * node) + 1, mid, hi, answers, percolates);
+        }
+        while (historySize > mark) {
+            int child = history[--historySize];
+            size[parent[child]] -= size[child];
+            parent[child] = child;
+        }
+    }
+
+    // no path compression so every union can be undone
+    private int find(int site) {
+        while (parent[site] != site) site = parent[site];
+        return site;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+        if (size[rootA] < size[rootB]) {
+            int temp = rootA;
+            rootA = rootB;
+            rootB = temp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        history[historySize++] = rootB;
+    }
+
+    /**
+     * records the connections of an open site to its open neighbors and to the top
+     * or bottom as living until the given query
+     *
+     * @param site the open site
+     * @param to   one past the last query the connections are alive for
+     */
+    private void endConnections(int site, int to) {
+        int from = openedAt[site];
+        int row = site / n;
+        int col = site % n;
+        if (row > 0) endEdge(site, site - n, from, to);
+        if (row < n - 1) endEdge(site, site + n, from, to);
+        if (col > 0) endEdge(site, site - 1, from, to);
+        if (col < n - 1) endEdge(site, site + 1, from, to);
+        if (row == 0) addEdge(site, top, from, to);
+        if (row == n - 1) addEdge(site, bottom, from, to);
+    }
+
+    private void endEdge(int site, int other, int from, int to) {
+        if (openedAt[other] < 0) return;
+        addEdge(site, other, Math.max(from, openedAt[other]), to);
+    }
+
+    private void addEdge(int a, int b, int from, int to) {
+        if (from >= to) return;
+        if (edges == edgeA.length) {
+            edgeA = Arrays.copyOf(edgeA, 2 * edges);
+            edgeB = Arrays.copyOf(edgeB, 2 * edges);
+            edgeFrom = Arrays.copyOf(edgeFrom, 2 * edges);
+            edgeTo = Arrays.copyOf(edgeTo, 2 * edges);
+        }
+        edgeA[edges] = a;
+        edgeB[edges] = b;
+        edgeFrom[edges] = from;
+        edgeTo[edges] = to;
+        edges++;
+    }
+
+    private int addQuery(int site, boolean open) {
+        if (queries == querySite.length) {
+            querySite = Arrays.copyOf(querySite, 2 * queries);
+            queryOpen = Arrays.copyOf(queryOpen, 2 * queries);
+        }
+        querySite[queries] = site;
+        queryOpen[queries] = open;
+        return queries++;
+    }
+
+    /**
+     * checks if the x and y value of a grid is inside the plane
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     */
+    private void validateCorners(int row, int col) {
+        if (row < 1 || row > this.n || col < 1 || col > this.n) {
+            throw new java.lang.IndexOutOfBoundsException();
+        }
+    }
+
+    private int toIndex(int row, int col) {
+        return (this.n * (row - 1)) + (col - 1);
+    }
+
+    /**
+     * opens random sites until the plane percolates, then keeps closing a random open
+     * site and opening a random blocked one and prints how often it still percolates
+     *
+     * @param args the size of the plane and the number of swaps
+     */
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int swaps = Integer.parseInt(args[1]);
+        DynamicPercolation perc = new DynamicPercolation(n);
+        Percolation reference = new Percolation(n);
+        while (!reference.percolates()) {
+            int row = StdRandom.uniform(1, n + 1);
+            int col = StdRandom.uniform(1, n + 1);
+            reference.open(row, col);
+            perc.open(row, col);
+        }
+        for (int i = 0; i < swaps; i++) {
+            int row = StdRandom.uniform(1, n + 1);
+            int col = StdRandom.uniform(1, n + 1);
+            if (perc.isOpen(row, col)) perc.close(row, col);
+            else perc.open(row, col);
+            perc.queryPercolates();
+        }
+        int percolating = 0;
+        for (boolean answer : perc.answers()) {
+            if (answer) percolating++;
+        }
+        StdOut.println("percolates after " + percolating + " of the " + swaps + " changes");
+    }
+}
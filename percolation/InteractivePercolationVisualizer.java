@@ -6,8 +6,9 @@
  *
  *  This program takes the grid size n as a command-line argument.
  *  Then, the user repeatedly clicks sites to open with the mouse.
- *  After each site is opened, it draws full sites in light blue,
- *  open sites (that aren't full) in white, and blocked sites in black.
+ *  After each site is opened, it redraws the sites that changed: full
+ *  sites in light blue, open sites (that aren't full) in white, and
+ *  blocked sites in black.
  *
  ******************************************************************************/
 
@@ -26,6 +27,8 @@ public class InteractivePercolationVisualizer {
 
         StdDraw.enableDoubleBuffering();
         Percolation perc = new Percolation(n);
+        int[] site = new int[1];
+        int[] changed = new int[PercolationVisualizer.CHANGED_BUFFER];
         PercolationVisualizer.draw(perc, n);
         StdDraw.show();
 
@@ -42,17 +45,15 @@ public class InteractivePercolationVisualizer {
                 int i = (int) (n - Math.floor(y));
                 int j = (int) (1 + Math.floor(x));
 
-                // open site (i, j) provided it's in bounds
+                // open site (i, j) provided it's in bounds and draw the sites that changed
                 if (i >= 1 && i <= n && j >= 1 && j <= n) {
                     if (!perc.isOpen(i, j)) {
                         StdOut.println(i + " " + j);
                     }
-                    perc.open(i, j);
+                    site[0] = (i - 1) * n + (j - 1);
+                    PercolationVisualizer.draw(perc, n, changed, perc.open(site, changed));
+                    StdDraw.show();
                 }
-
-                // draw n-by-n percolation system
-                PercolationVisualizer.draw(perc, n);
-                StdDraw.show();
             }
 
             StdDraw.pause(20);
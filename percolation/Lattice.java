@@ -0,0 +1,320 @@
+/* *****************************************************************************
+ *  Last modified:     10/18/2026
+ *  Description:       The shape of a percolation system, numbers its sites
+ *                     0..sites()-1 and tells LatticePercolation who the
+ *                     neighbors of a site are and which sites touch the top
+ *                     and the bottom
+ **************************************************************************** */
+public abstract class Lattice {
+
+    /**
+     * the number of sites of the lattice
+     *
+     * @return the number of sites
+     */
+    public abstract int sites();
+
+    /**
+     * the most neighbors any site can have, the size of the array neighbors() needs
+     *
+     * @return the largest degree
+     */
+    public abstract int maxDegree();
+
+    /**
+     * writes the neighbors of a site into the given array
+     *
+     * @param site      the site
+     * @param neighbors where the neighbors go, at least maxDegree() long
+     * @return the number of neighbors written
+     */
+    public abstract int neighbors(int site, int[] neighbors);
+
+    /**
+     * checks if a site is on the top boundary
+     *
+     * @param site the site
+     * @return true if it touches the top
+     */
+    public abstract boolean isTop(int site);
+
+    /**
+     * checks if a site is on the bottom boundary
+     *
+     * @param site the site
+     * @return true if it touches the bottom
+     */
+    public abstract boolean isBottom(int site);
+
+    /**
+     * the number of bonds of the lattice, each pair of neighbors counted once, a long
+     * because the big lattices have more bonds than an int can count
+     *
+     * @return the number of bonds
+     */
+    public long bonds() {
+        int[] neighbors = new int[maxDegree()];
+        long bonds = 0;
+        for (int site = 0; site < sites(); site++) {
+            int degree = neighbors(site, neighbors);
+            for (int k = 0; k < degree; k++) {
+                if (neighbors[k] > site) bonds++;
+            }
+        }
+        return bonds;
+    }
+
+    /**
+     * the n-by-n square lattice Percolation uses, site (row, col) is
+     * (row - 1) * n + (col - 1)
+     *
+     * @param n the number of sites on every row/column
+     * @return the lattice
+     */
+    public static Lattice square(int n) {
+        return new Square(n, false);
+    }
+
+    /**
+     * the n-by-n square lattice where the first and last columns are neighbors
+     *
+     * @param n the number of sites on every row/column, at least 3
+     * @return the lattice
+     */
+    public static Lattice periodicSquare(int n) {
+        if (n < 3) throw new IllegalArgumentException("a periodic lattice needs n >= 3");
+        return new Square(n, true);
+    }
+
+    /**
+     * the n-by-n triangular lattice, the square lattice with the (row - 1, col + 1) and
+     * (row + 1, col - 1) diagonals added so every inner site has six neighbors
+     *
+     * @param n the number of sites on every row/column
+     * @return the lattice
+     */
+    public static Lattice triangular(int n) {
+        return new Triangular(n);
+    }
+
+    /**
+     * the n-by-n hexagonal (honeycomb) lattice drawn as a brick wall, every site has
+     * its left and right neighbors and the one below if row + col is even or the
+     * one above if it is odd
+     *
+     * @param n the number of sites on every row/column
+     * @return the lattice
+     */
+    public static Lattice hexagonal(int n) {
+        return new Hexagonal(n);
+    }
+
+    /**
+     * the n-by-n-by-n simple cubic lattice, the top is the first layer and the bottom
+     * the last one
+     *
+     * @param n the number of sites on every side
+     * @return the lattice
+     */
+    public static Lattice cubic(int n) {
+        return new Cubic(n);
+    }
+
+    /**
+     * checks the side of a lattice and that its sites can be numbered with an int
+     *
+     * @param n          the number of sites on every side
+     * @param dimensions the number of sides
+     */
+    private static void validateSide(int n, int dimensions) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The N value has to be grater than 0");
+        }
+        if (Math.pow(n, dimensions) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The N value is too big: " + n);
+        }
+    }
+
+    private static class Square extends Lattice {
+        private final int n;
+        private final boolean periodic;
+
+        Square(int n, boolean periodic) {
+            validateSide(n, 2);
+            this.n = n;
+            this.periodic = periodic;
+        }
+
+        @Override
+        public int sites() {
+            return n * n;
+        }
+
+        @Override
+        public int maxDegree() {
+            return 4;
+        }
+
+        @Override
+        public int neighbors(int site, int[] neighbors) {
+            int row = site / n;
+            int col = site % n;
+            int degree = 0;
+            if (row > 0) neighbors[degree++] = site - n;
+            if (row < n - 1) neighbors[degree++] = site + n;
+            if (col > 0) neighbors[degree++] = site - 1;
+            else if (periodic) neighbors[degree++] = site + n - 1;
+            if (col < n - 1) neighbors[degree++] = site + 1;
+            else if (periodic) neighbors[degree++] = site - n + 1;
+            return degree;
+        }
+
+        @Override
+        public boolean isTop(int site) {
+            return site < n;
+        }
+
+        @Override
+        public boolean isBottom(int site) {
+            return site >= n * (n - 1);
+        }
+    }
+
+    private static class Triangular extends Lattice {
+        private final int n;
+
+        Triangular(int n) {
+            validateSide(n, 2);
+            this.n = n;
+        }
+
+        @Override
+        public int sites() {
+            return n * n;
+        }
+
+        @Override
+        public int maxDegree() {
+            return 6;
+        }
+
+        @Override
+        public int neighbors(int site, int[] neighbors) {
+            int row = site / n;
+            int col = site % n;
+            int degree = 0;
+            if (row > 0) {
+                neighbors[degree++] = site - n;
+                if (col < n - 1) neighbors[degree++] = site - n + 1;
+            }
+            if (row < n - 1) {
+                neighbors[degree++] = site + n;
+                if (col > 0) neighbors[degree++] = site + n - 1;
+            }
+            if (col > 0) neighbors[degree++] = site - 1;
+            if (col < n - 1) neighbors[degree++] = site + 1;
+            return degree;
+        }
+
+        @Override
+        public boolean isTop(int site) {
+            return site < n;
+        }
+
+        @Override
+        public boolean isBottom(int site) {
+            return site >= n * (n - 1);
+        }
+    }
+
+    private static class Hexagonal extends Lattice {
+        private final int n;
+
+        Hexagonal(int n) {
+            validateSide(n, 2);
+            this.n = n;
+        }
+
+        @Override
+        public int sites() {
+            return n * n;
+        }
+
+        @Override
+        public int maxDegree() {
+            return 3;
+        }
+
+        @Override
+        public int neighbors(int site, int[] neighbors) {
+            int row = site / n;
+            int col = site % n;
+            int degree = 0;
+            if (((row + col) & 1) == 0) {
+                if (row < n - 1) neighbors[degree++] = site + n;
+            }
+            else if (row > 0) {
+                neighbors[degree++] = site - n;
+            }
+            if (col > 0) neighbors[degree++] = site - 1;
+            if (col < n - 1) neighbors[degree++] = site + 1;
+            return degree;
+        }
+
+        @Override
+        public boolean isTop(int site) {
+            return site < n;
+        }
+
+        @Override
+        public boolean isBottom(int site) {
+            return site >= n * (n - 1);
+        }
+    }
+
+    private static class Cubic extends Lattice {
+        private final int n;
+        private final int layer;
+
+        Cubic(int n) {
+            validateSide(n, 3);
+            this.n = n;
+            this.layer = n * n;
+        }
+
+        @Override
+        public int sites() {
+            return layer * n;
+        }
+
+        @Override
+        public int maxDegree() {
+            return 6;
+        }
+
+        @Override
+        public int neighbors(int site, int[] neighbors) {
+            int z = site / layer;
+            int y = (site % layer) / n;
+            int x = site % n;
+            int degree = 0;
+            if (z > 0) neighbors[degree++] = site - layer;
+            if (z < n - 1) neighbors[degree++] = site + layer;
+            if (y > 0) neighbors[degree++] = site - n;
+            if (y < n - 1) neighbors[degree++] = site + n;
+            if (x > 0) neighbors[degree++] = site - 1;
+            if (x < n - 1) neighbors[degree++] = site + 1;
+            return degree;
+        }
+
+        @Override
+        public boolean isTop(int site) {
+            return site < layer;
+        }
+
+        @Override
+        public boolean isBottom(int site) {
+            return site >= layer * (n - 1);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/* *****************************************************************************
+ *  Last modified:     10/18/2026
+ *  Description:       Site and bond percolation on any Lattice, the open sites
+ *                     are packed into a bitset, every root of the union-find
+ *                     keeps the size of its component and two bits beside it
+ *                     tell if it touches the top or the bottom, nothing is
+ *                     allocated after the constructor
+ **************************************************************************** */
+public class LatticePercolation {
+    // a root stores ~size, every other site stores its parent
+    private static final int TOP = 1;
+    private static final int BOTTOM = 2;
+    // largest number of sites an int array can hold
+    private static final int MAX_SITES = Integer.MAX_VALUE - 8;
+
+    private final Lattice lattice;
+    private final long[] open;
+    private final int[] parent;
+    // two bits for every site, TOP and BOTTOM of the component if the site is a root
+    private final long[] flags;
+    private final int[] neighbors;
+    private int openSites;
+    private int openBonds;
+    private boolean percolates;
+
+    /**
+     * creates a system on the given lattice where every site is blocked
+     *
+     * @param lattice the lattice of the system
+     */
+    public LatticePercolation(Lattice lattice) {
+        if (lattice == null) throw new IllegalArgumentException("lattice cannot be null");
+        int sites = lattice.sites();
+        if (sites > MAX_SITES) {
+            throw new IllegalArgumentException("The lattice has too many sites: " + sites);
+        }
+        this.lattice = lattice;
+        this.open = new long[(sites + 63) >>> 6];
+        this.parent = new int[sites];
+        this.flags = new long[(sites + 31) >>> 5];
+        this.neighbors = new int[lattice.maxDegree()];
+    }
+
+    /**
+     * opens a site and joins it with every open neighbor (site percolation)
+     *
+     * @param site the site to open
+     */
+    public void openSite(int site) {
+        validateSite(site);
+        if (!makeOpen(site)) return;
+        int degree = lattice.neighbors(site, neighbors);
+        for (int k = 0; k < degree; k++) {
+            if (isOpenSite(neighbors[k])) union(site, neighbors[k]);
+        }
+        if (flags(find(site)) == (TOP | BOTTOM)) percolates = true;
+    }
+
+    /**
+     * opens the bond between two neighbors (bond percolation), both ends count as
+     * open sites but are only joined through the bonds opened with this method, so
+     * openSite should not be used on the same system
+     *
+     * @param a one end of the bond
+     * @param b the other end of the bond, a neighbor of a on the lattice
+     */
+    public void openBond(int a, int b) {
+        validateSite(a);
+        validateSite(b);
+        if (!isNeighbor(a, b)) {
+            throw new IllegalArgumentException("sites " + a + " and " + b + " are not neighbors");
+        }
+        makeOpen(a);
+        makeOpen(b);
+        openBonds++;
+        union(a, b);
+        if (flags(find(a)) == (TOP | BOTTOM)) percolates = true;
+    }
+
+    /**
+     * checks if a site is open
+     *
+     * @param site the site
+     * @return true if open and false if not
+     */
+    public boolean isOpen(int site) {
+        validateSite(site);
+        return isOpenSite(site);
+    }
+
+    /**
+     * checks if a site is open and connected to the top
+     *
+     * @param site the site
+     * @return true if full and false if not
+     */
+    public boolean isFull(int site) {
+        validateSite(site);
+        return isOpenSite(site) && (flags(find(site)) & TOP) != 0;
+    }
+
+    /**
+     * the number of open sites in the component of a site
+     *
+     * @param site the site
+     * @return the size of the component, 0 if the site is blocked
+     */
+    public int clusterSize(int site) {
+        validateSite(site);
+        if (!isOpenSite(site)) return 0;
+        return size(find(site));
+    }
+
+    /**
+     * returns the number of open sites
+     *
+     * @return the number of open sites
+     */
+    public int numberOfOpenSites() {
+        return this.openSites;
+    }
+
+    /**
+     * returns the number of times openBond was called
+     *
+     * @return the number of open bonds
+     */
+    public int numberOfOpenBonds() {
+        return this.openBonds;
+    }
+
+    /**
+     * checks if a component touches both the top and the bottom
+     *
+     * @return true if percolates and false otherwise
+     */
+    public boolean percolates() {
+        return this.percolates;
+    }
+
+    /**
+     * returns the lattice of the system
+     *
+     * @return the lattice
+     */
+    public Lattice lattice() {
+        return this.lattice;
+    }
+
+    /**
+     * marks a site open as a component of its own
+     *
+     * @param site the site
+     * @return false if it was open already
+     */
+    private boolean makeOpen(int site) {
+        if (isOpenSite(site)) return false;
+        open[site >>> 6] |= 1L << site;
+        openSites++;
+        int siteFlags = 0;
+        if (lattice.isTop(site)) siteFlags |= TOP;
+        if (lattice.isBottom(site)) siteFlags |= BOTTOM;
+        parent[site] = ~1;
+        addFlags(site, siteFlags);
+        if (siteFlags == (TOP | BOTTOM)) percolates = true;
+        return true;
+    }
+
+    private boolean isNeighbor(int a, int b) {
+        int degree = lattice.neighbors(a, neighbors);
+        for (int k = 0; k < degree; k++) {
+            if (neighbors[k] == b) return true;
+        }
+        return false;
+    }
+
+    private boolean isOpenSite(int site) {
+        return (open[site >>> 6] & (1L << site)) != 0;
+    }
+
+    /**
+     * finds the root of a site, halving the path on the way up
+     *
+     * @param site the index of the site
+     * @return the index of the root
+     */
+    private int find(int site) {
+        while (parent[site] >= 0) {
+            int p = parent[site];
+            if (parent[p] >= 0) parent[site] = parent[p];
+            site = parent[site];
+        }
+        return site;
+    }
+
+    /**
+     * joins the components of two open sites by size, the new root keeps the
+     * flags of both
+     *
+     * @param a the first site
+     * @param b the second site
+     */
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+        int sizeA = size(rootA);
+        int sizeB = size(rootB);
+        int merged = flags(rootA) | flags(rootB);
+        if (sizeA < sizeB) {
+            parent[rootA] = rootB;
+            parent[rootB] = ~(sizeA + sizeB);
+            addFlags(rootB, merged);
+        }
+        else {
+            parent[rootB] = rootA;
+            parent[rootA] = ~(sizeA + sizeB);
+            addFlags(rootA, merged);
+        }
+    }
+
+    private int size(int root) {
+        return ~parent[root];
+    }
+
+    private int flags(int root) {
+        return (int) (flags[root >>> 5] >>> ((root & 31) << 1)) & (TOP | BOTTOM);
+    }
+
+    // the flags of a component only ever grow, so they are or-ed into the bits of its root
+    private void addFlags(int root, int rootFlags) {
+        flags[root >>> 5] |= (long) rootFlags << ((root & 31) << 1);
+    }
+
+    private void validateSite(int site) {
+        if (site < 0 || site >= parent.length) {
+            throw new java.lang.IndexOutOfBoundsException();
+        }
+    }
+}
@@ -1,12 +1,25 @@
 import edu.princeton.cs.algs4.WeightedQuickUnionUF;
 
+import java.util.Arrays;
+
 /* *****************************************************************************
  *  Name:              Bisrat Zerihun
  *  Coursera User ID:
  *  Last modified:     06/04/2021
  **************************************************************************** */
 public class Percolation {
+    private static final int MAX_N = 46340;
+
     private boolean[][] arr;
+    // open sites already known to be full, kept in step with the union-find so a
+    // batch can tell which sites became full, null until the first batch
+    private boolean[][] flooded;
+    private int[] stack;
+    // the sites changed by the last batch, delta[reported..deltaCount) are still to
+    // be handed out by nextChanged()
+    private int[] delta;
+    private int deltaCount;
+    private int reported;
     private WeightedQuickUnionUF full;
     private WeightedQuickUnionUF perc;
     private int N;
@@ -23,6 +36,10 @@ public class Percolation {
         if (n <= 0) {
             throw new java.lang.IllegalArgumentException("The N value has to be grater than 0");
         }
+        // n * n + 2 has to fit in an int, use StreamingPercolation for bigger grids
+        if (n > MAX_N) {
+            throw new java.lang.IllegalArgumentException("The N value is too big: " + n);
+        }
         this.N = n;
         this.virtualTop = 0;
         this.virtualBottom = (n * n) + 1;
@@ -50,20 +67,169 @@ public class Percolation {
      * @param col y value of the grid
      */
     public void open(int row, int col) {
-        if (row > 1 && isOpen(row - 1, col)) {
+        validateCorners(row, col);
+        openSite(row, col);
+        // only a system that was given batches keeps track of its full sites
+        if (flooded != null && !flooded[row - 1][col - 1] && isFull(row, col)) {
+            flood(row, col, false);
+        }
+    }
+
+    /**
+     * opens a batch of sites given as packed indices (row - 1) * n + (col - 1), every
+     * index is checked before any site is opened
+     *
+     * @param sites   the packed indices of the sites to open
+     * @param changed where the packed indices of the sites that became open or full
+     *                go, the ones that do not fit are handed out by nextChanged()
+     * @return the number of sites written to changed
+     */
+    public int open(int[] sites, int[] changed) {
+        if (sites == null) throw new IllegalArgumentException("sites cannot be null");
+        return open(sites, 0, sites.length, changed);
+    }
+
+    /**
+     * opens the sites in sites[from..to), so a long stream of sites can be replayed
+     * through one buffer
+     *
+     * @param sites   the packed indices of the sites to open
+     * @param from    the first index of the batch
+     * @param to      one past the last index of the batch
+     * @param changed where the packed indices of the sites that became open or full
+     *                go, the ones that do not fit are handed out by nextChanged()
+     * @return the number of sites written to changed
+     */
+    public int open(int[] sites, int from, int to, int[] changed) {
+        if (sites == null) throw new IllegalArgumentException("sites cannot be null");
+        validateChanged(changed);
+        if (from < 0 || to > sites.length || from > to) {
+            throw new java.lang.IndexOutOfBoundsException();
+        }
+        int total = this.N * this.N;
+        for (int k = from; k < to; k++) {
+            if (sites[k] < 0 || sites[k] >= total) {
+                throw new java.lang.IndexOutOfBoundsException();
+            }
+        }
+        if (flooded == null) startBatches();
+
+        deltaCount = 0;
+        for (int k = from; k < to; k++) {
+            int row = (sites[k] / this.N) + 1;
+            int col = (sites[k] % this.N) + 1;
+            if (!arr[row - 1][col - 1]) {
+                openSite(row, col);
+                addDelta(sites[k]);
+            }
+        }
+        // the flood reports every site that turned full, including new ones, so the
+        // new sites are only reported afterwards if they stayed empty
+        int opened = deltaCount;
+        for (int k = 0; k < opened; k++) {
+            int row = (delta[k] / this.N) + 1;
+            int col = (delta[k] % this.N) + 1;
+            if (!flooded[row - 1][col - 1] && isFull(row, col)) flood(row, col, true);
+        }
+        for (int k = 0; k < opened; k++) {
+            if (!flooded[delta[k] / this.N][delta[k] % this.N]) addDelta(delta[k]);
+        }
+        reported = opened;
+        return nextChanged(changed);
+    }
+
+    /**
+     * hands out the sites the last batch changed that did not fit in the buffers
+     * given so far, the next batch drops the ones that were not asked for
+     *
+     * @param changed where the packed indices of the next changed sites go
+     * @return the number of sites written to changed, 0 once every one was handed out
+     */
+    public int nextChanged(int[] changed) {
+        validateChanged(changed);
+        int count = Math.min(changed.length, deltaCount - reported);
+        if (count == 0) return 0;
+        System.arraycopy(delta, reported, changed, 0, count);
+        reported += count;
+        return count;
+    }
+
+    private static void validateChanged(int[] changed) {
+        if (changed == null || changed.length == 0) {
+            throw new IllegalArgumentException("changed has to hold at least one site");
+        }
+    }
+
+    /**
+     * sets up the state only batches need, marking the sites that are full already
+     */
+    private void startBatches() {
+        flooded = new boolean[this.N][this.N];
+        delta = new int[16];
+        for (int col = 1; col <= this.N; col++) {
+            if (arr[0][col - 1] && !flooded[0][col - 1]) flood(1, col, false);
+        }
+    }
+
+    /**
+     * marks every open site reachable from a full site as full
+     *
+     * @param row    x value of the full grid
+     * @param col    y value of the full grid
+     * @param record true if the marked sites should be added to the changed sites
+     */
+    private void flood(int row, int col, boolean record) {
+        if (stack == null) stack = new int[this.N * this.N];
+        int top = 0;
+        flooded[row - 1][col - 1] = true;
+        stack[top++] = ((row - 1) * this.N) + (col - 1);
+        while (top > 0) {
+            int site = stack[--top];
+            if (record) addDelta(site);
+            int i = site / this.N;
+            int j = site % this.N;
+            if (i > 0) top = floodInto(i - 1, j, top);
+            if (i < this.N - 1) top = floodInto(i + 1, j, top);
+            if (j > 0) top = floodInto(i, j - 1, top);
+            if (j < this.N - 1) top = floodInto(i, j + 1, top);
+        }
+    }
+
+    private void addDelta(int site) {
+        if (deltaCount == delta.length) delta = Arrays.copyOf(delta, 2 * delta.length);
+        delta[deltaCount++] = site;
+    }
+
+    private int floodInto(int i, int j, int top) {
+        if (arr[i][j] && !flooded[i][j]) {
+            flooded[i][j] = true;
+            stack[top++] = (i * this.N) + j;
+        }
+        return top;
+    }
+
+    /**
+     * opens a grid and joins it with its open neighbors, the corners have to be
+     * checked already so the neighbors are read straight from the grid
+     *
+     * @param row x value of the grid
+     * @param col y value of the grid
+     */
+    private void openSite(int row, int col) {
+        if (row > 1 && arr[row - 2][col - 1]) {
             full.union(toInt(row - 1, col), toInt(row, col));
             perc.union(toInt(row - 1, col), toInt(row, col));
         }
-        if (row < N && isOpen(row + 1, col)) {
+        if (row < N && arr[row][col - 1]) {
             full.union(toInt(row + 1, col), toInt(row, col));
             perc.union(toInt(row + 1, col), toInt(row, col));
 
         }
-        if (col > 1 && isOpen(row, col - 1)) {
+        if (col > 1 && arr[row - 1][col - 2]) {
             full.union(toInt(row, col - 1), toInt(row, col));
             perc.union(toInt(row, col - 1), toInt(row, col));
         }
-        if (col < N && isOpen(row, col + 1)) {
+        if (col < N && arr[row - 1][col]) {
             full.union(toInt(row, col + 1), toInt(row, col));
             perc.union(toInt(row, col + 1), toInt(row, col));
         }
@@ -0,0 +1,221 @@
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/* *****************************************************************************
+ *  Last modified:     10/18/2026
+ *  Description:       Newman-Ziff estimate of the whole percolation curve, every
+ *                     trial opens all the sites once in a random order and
+ *                     records the state after each one, the results for a site
+ *                     probability p are then a binomial average over those
+ **************************************************************************** */
+public class PercolationCurve {
+    // same role as in PercolationStats, keeps the random streams independent of
+    // the pool size
+    private static final int TRIALS_PER_TASK = 16;
+    // binomial weights below this fraction of the largest one are not summed
+    private static final double CUTOFF = 1e-15;
+
+    private final int sites;
+    private final int trials;
+    // number of trials that percolate with k open sites
+    private final long[] spanning;
+    // sum over the trials of the largest cluster with k open sites
+    private final long[] largest;
+
+    /**
+     * runs the trials on the given pool, every trial draws from its own random stream
+     * split off the master seed so the curve is the same no matter the pool size
+     *
+     * @param n      the size of the percolation visual
+     * @param trials the number of trials
+     * @param seed   the master seed all the trial streams are derived from
+     * @param pool   the pool the trials are run on
+     */
+    public PercolationCurve(int n, int trials, long seed, ForkJoinPool pool) {
+        if (n <= 0 || trials <= 0) {
+            throw new IllegalArgumentException("N and trials must be positive natural numbers!");
+        }
+        if (pool == null) throw new IllegalArgumentException("pool cannot be null");
+        this.sites = n * n;
+        this.trials = trials;
+        long[][] sums = pool.invoke(new Sweeps(n, 0, trials, new SplittableRandom(seed)));
+        this.spanning = sums[0];
+        this.largest = sums[1];
+    }
+
+    /**
+     * opens every site of a new plane in a random order and adds the state after
+     * each opening to the running sums
+     *
+     * @param n        the size of the percolation visual
+     * @param rng      the random stream owned by this trial
+     * @param spanning the trial counts of percolating planes to add to
+     * @param largest  the sums of the largest cluster to add to
+     */
+    private static void sweep(int n, SplittableRandom rng, long[] spanning, long[] largest) {
+        int sites = n * n;
+        int[] order = new int[sites];
+        for (int k = 0; k < sites; k++) {
+            int j = rng.nextInt(k + 1);
+            order[k] = order[j];
+            order[j] = k;
+        }
+        CompactPercolation perc = new CompactPercolation(n);
+        int biggest = 0;
+        for (int k = 0; k < sites; k++) {
+            int row = (order[k] / n) + 1;
+            int col = (order[k] % n) + 1;
+            perc.open(row, col);
+            biggest = Math.max(biggest, perc.clusterSize(row, col));
+            if (perc.percolates()) spanning[k + 1]++;
+            largest[k + 1] += biggest;
+        }
+    }
+
+    /**
+     * runs the trials in [lo, hi) the same way PercolationStats does, the sums are
+     * integers so the order they are merged in does not matter
+     */
+    private static class Sweeps extends RecursiveTask<long[][]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int n;
+        private final int lo;
+        private final int hi;
+        private final SplittableRandom rng;
+
+        Sweeps(int n, int lo, int hi, SplittableRandom rng) {
+            this.n = n;
+            this.lo = lo;
+            this.hi = hi;
+            this.rng = rng;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (hi - lo <= TRIALS_PER_TASK) {
+                long[][] sums = new long[2][(n * n) + 1];
+                for (int i = lo; i < hi; i++) {
+                    sweep(n, rng.split(), sums[0], sums[1]);
+                }
+                return sums;
+            }
+            int mid = (lo + hi) >>> 1;
+            Sweeps right = new Sweeps(n, mid, hi, rng.split());
+            Sweeps left = new Sweeps(n, lo, mid, rng);
+            right.fork();
+            long[][] sums = left.compute();
+            long[][] other = right.join();
+            for (int k = 0; k < sums[0].length; k++) {
+                sums[0][k] += other[0][k];
+                sums[1][k] += other[1][k];
+            }
+            return sums;
+        }
+    }
+
+    /**
+     * the fraction of trials that percolate with exactly the given number of open sites
+     *
+     * @param openSites the number of open sites
+     * @return the estimated probability of percolating
+     */
+    public double percolationProbabilityAt(int openSites) {
+        validateOpenSites(openSites);
+        return (double) spanning[openSites] / trials;
+    }
+
+    /**
+     * the average size of the largest cluster with exactly the given number of open
+     * sites, as a fraction of all the sites
+     *
+     * @param openSites the number of open sites
+     * @return the estimated largest cluster fraction
+     */
+    public double largestClusterFractionAt(int openSites) {
+        validateOpenSites(openSites);
+        return (double) largest[openSites] / trials / sites;
+    }
+
+    /**
+     * the probability of percolating when every site is open with probability p
+     *
+     * @param p the probability a site is open
+     * @return the estimated probability of percolating
+     */
+    public double percolationProbability(double p) {
+        return convolve(spanning, p) / trials;
+    }
+
+    /**
+     * the average size of the largest cluster when every site is open with
+     * probability p, as a fraction of all the sites
+     *
+     * @param p the probability a site is open
+     * @return the estimated largest cluster fraction
+     */
+    public double largestClusterFraction(double p) {
+        return convolve(largest, p) / trials / sites;
+    }
+
+    /**
+     * averages the sums over the binomial distribution of the number of open sites,
+     * the weights are built outwards from the mode with their ratios so nothing
+     * overflows and the sum stops once they are negligible
+     *
+     * @param sums the per open site count sums
+     * @param p    the probability a site is open
+     * @return the weighted average of the sums
+     */
+    private double convolve(long[] sums, double p) {
+        if (!(p >= 0.0 && p <= 1.0)) throw new IllegalArgumentException("p must be in [0, 1]");
+        if (p == 0.0) return sums[0];
+        if (p == 1.0) return sums[sites];
+        int mode = (int) Math.min(sites, Math.floor(p * (sites + 1)));
+        double odds = p / (1.0 - p);
+        double total = 1.0;
+        double value = sums[mode];
+        double weight = 1.0;
+        for (int k = mode; k < sites && weight > CUTOFF; k++) {
+            weight *= odds * (sites - k) / (k + 1);
+            total += weight;
+            value += weight * sums[k + 1];
+        }
+        weight = 1.0;
+        for (int k = mode; k > 0 && weight > CUTOFF; k--) {
+            weight *= k / (odds * (sites - k + 1));
+            total += weight;
+            value += weight * sums[k - 1];
+        }
+        return value / total;
+    }
+
+    private void validateOpenSites(int openSites) {
+        if (openSites < 0 || openSites > sites) {
+            throw new java.lang.IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * prints the curve for evenly spaced values of p
+     *
+     * @param args the size, trials, seed and optionally the number of points
+     */
+    public static void main(String[] args) {
+        int sideLength = Integer.parseInt(args[0]);
+        int trials = Integer.parseInt(args[1]);
+        long seed = Long.parseLong(args[2]);
+        int points = args.length >= 4 ? Integer.parseInt(args[3]) : 20;
+        PercolationCurve curve = new PercolationCurve(sideLength, trials, seed,
+                                                      ForkJoinPool.commonPool());
+        StdOut.println("p\tpercolates\tlargest");
+        for (int i = 0; i <= points; i++) {
+            double p = (double) i / points;
+            StdOut.printf("%.4f\t%f\t%f%n", p, curve.percolationProbability(p),
+                          curve.largestClusterFraction(p));
+        }
+    }
+}
@@ -1,15 +1,39 @@
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /* *****************************************************************************
  *  Name:              Bisrat Zerihun
  *  Coursera User ID:
- *  Last modified:     06/09/2021
+ *  Last modified:     10/18/2026
  **************************************************************************** */
 public class PercolationStats {
-    private double[] results;
-    private int trials;
+    // trials run sequentially by a single task, fixed so that the split tree
+    // (and therefore every random stream) does not depend on the pool size
+    private static final int TRIALS_PER_TASK = 16;
+    // largest array the VM hands out, the bond list of a lattice has to fit in one
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    /**
+     * how a trial picks the sites it opens
+     */
+    public enum Sampling {
+        // draw random sites until the plane percolates, even ones already open
+        REJECTION,
+        // open the sites in the order of a lazily shuffled permutation so every
+        // draw opens a new site
+        SHUFFLE,
+        // shuffle all the sites up front and binary search the prefix of the
+        // permutation that first percolates with flood fills instead of unions
+        BISECTION
+    }
+
+    private final int trials;
+    private final double mean;
+    private final double stddev;
 
     /**
      * gives stats on the percolation threshold by intaking different size items and trials
@@ -18,21 +42,345 @@ public class PercolationStats {
      * @param trials the number of trials
      */
     public PercolationStats(int n, int trials) {
+        this(n, trials, StdRandom.uniform(Integer.MAX_VALUE), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * gives stats on the percolation threshold by running the trials on the given pool,
+     * every trial draws from its own random stream split off the master seed so the
+     * results are the same no matter how many threads the pool has
+     *
+     * @param n      the size of the percolation visual
+     * @param trials the number of trials
+     * @param seed   the master seed all the trial streams are derived from
+     * @param pool   the pool the trials are run on
+     */
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool) {
+        this(n, trials, seed, pool, Sampling.REJECTION);
+    }
+
+    /**
+     * gives stats on the percolation threshold by running the trials on the given pool
+     * with the given way of picking sites
+     *
+     * @param n        the size of the percolation visual
+     * @param trials   the number of trials
+     * @param seed     the master seed all the trial streams are derived from
+     * @param pool     the pool the trials are run on
+     * @param sampling how every trial picks the sites it opens
+     */
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool,
+                            Sampling sampling) {
         if (n <= 0 || trials <= 0) {
             throw new IllegalArgumentException("N and trials must be positive natural numbers!");
         }
+        if (pool == null || sampling == null) {
+            throw new IllegalArgumentException("pool and sampling cannot be null");
+        }
+        this.trials = trials;
+        Accumulator acc = pool.invoke(new Trials(rng -> runTrial(n, sampling, rng), 0, trials,
+                                                 new SplittableRandom(seed)));
+        this.mean = acc.mean;
+        this.stddev = Math.sqrt(acc.m2 / (acc.count - 1));
+    }
+
+    /**
+     * gives stats on the percolation threshold of any lattice, every trial opens the
+     * sites (or the bonds) in a lazily shuffled order until the system percolates
+     *
+     * @param lattice the lattice of the system
+     * @param bonds   true for bond percolation, false for site percolation
+     * @param trials  the number of trials
+     * @param seed    the master seed all the trial streams are derived from
+     * @param pool    the pool the trials are run on
+     */
+    public PercolationStats(Lattice lattice, boolean bonds, int trials, long seed,
+                            ForkJoinPool pool) {
+        if (trials <= 0) {
+            throw new IllegalArgumentException("trials must be a positive natural number!");
+        }
+        if (lattice == null || pool == null) {
+            throw new IllegalArgumentException("lattice and pool cannot be null");
+        }
         this.trials = trials;
-        results = new double[trials];
-        for (int i = 0; i < trials; i++) {
-            Percolation perc = new Percolation(n);
-            while (!perc.percolates()) {
-                int x = StdRandom.uniform(1, n + 1);
-                int y = StdRandom.uniform(1, n + 1);
-                perc.open(x, y);
+        Trial trial;
+        if (bonds) {
+            // the ends of every bond, listed once and shared by all the trials
+            long count = lattice.bonds();
+            if (count == 0) throw new IllegalArgumentException("The lattice has no bonds");
+            if (2 * count > MAX_ARRAY) {
+                throw new IllegalArgumentException("The lattice has too many bonds: " + count);
+            }
+            int[] ends = new int[(int) (2 * count)];
+            int[] neighbors = new int[lattice.maxDegree()];
+            int bond = 0;
+            for (int site = 0; site < lattice.sites(); site++) {
+                int degree = lattice.neighbors(site, neighbors);
+                for (int k = 0; k < degree; k++) {
+                    if (neighbors[k] > site) {
+                        ends[bond++] = site;
+                        ends[bond++] = neighbors[k];
+                    }
+                }
+            }
+            trial = rng -> bondTrial(lattice, ends, rng);
+        }
+        else {
+            trial = rng -> siteTrial(lattice, rng);
+        }
+        Accumulator acc = pool.invoke(new Trials(trial, 0, trials, new SplittableRandom(seed)));
+        this.mean = acc.mean;
+        this.stddev = Math.sqrt(acc.m2 / (acc.count - 1));
+    }
+
+    /**
+     * runs a single trial with the given way of picking sites
+     *
+     * @param n        the size of the percolation visual
+     * @param sampling how the trial picks the sites it opens
+     * @param rng      the random stream owned by this trial
+     * @return the fraction of open sites when the plane first percolates
+     */
+    private static double runTrial(int n, Sampling sampling, SplittableRandom rng) {
+        switch (sampling) {
+            case SHUFFLE:
+                return shuffleTrial(n, rng);
+            case BISECTION:
+                return bisectionTrial(n, rng);
+            default:
+                return rejectionTrial(n, rng);
+        }
+    }
+
+    /**
+     * runs a single trial by opening random sites until the plane percolates
+     *
+     * @param n   the size of the percolation visual
+     * @param rng the random stream owned by this trial
+     * @return the fraction of open sites when the plane first percolates
+     */
+    private static double rejectionTrial(int n, SplittableRandom rng) {
+        Percolation perc = new Percolation(n);
+        while (!perc.percolates()) {
+            int x = rng.nextInt(n) + 1;
+            int y = rng.nextInt(n) + 1;
+            perc.open(x, y);
+        }
+        return (double) perc.numberOfOpenSites() / ((double) n * n);
+    }
+
+    /**
+     * runs a single trial by opening the sites in a random order, the fisher-yates
+     * swaps are only done as far as the trial needs them and an untouched slot k of
+     * the permutation stands for site k (slots hold site + 1 once written)
+     *
+     * @param n   the size of the percolation visual
+     * @param rng the random stream owned by this trial
+     * @return the fraction of open sites when the plane first percolates
+     */
+    private static double shuffleTrial(int n, SplittableRandom rng) {
+        int sites = n * n;
+        int[] order = new int[sites];
+        CompactPercolation perc = new CompactPercolation(n);
+        for (int k = 0; !perc.percolates(); k++) {
+            int j = k + rng.nextInt(sites - k);
+            int site = order[j] == 0 ? j : order[j] - 1;
+            order[j] = order[k] == 0 ? k + 1 : order[k];
+            perc.open((site / n) + 1, (site % n) + 1);
+        }
+        return (double) perc.numberOfOpenSites() / sites;
+    }
+
+    /**
+     * runs a single site percolation trial on a lattice, opening its sites in a lazily
+     * shuffled order like shuffleTrial
+     *
+     * @param lattice the lattice of the system
+     * @param rng     the random stream owned by this trial
+     * @return the fraction of open sites when the system first percolates
+     */
+    private static double siteTrial(Lattice lattice, SplittableRandom rng) {
+        int sites = lattice.sites();
+        int[] order = new int[sites];
+        LatticePercolation perc = new LatticePercolation(lattice);
+        for (int k = 0; !perc.percolates(); k++) {
+            int j = k + rng.nextInt(sites - k);
+            int site = order[j] == 0 ? j : order[j] - 1;
+            order[j] = order[k] == 0 ? k + 1 : order[k];
+            perc.openSite(site);
+        }
+        return (double) perc.numberOfOpenSites() / sites;
+    }
+
+    /**
+     * runs a single bond percolation trial on a lattice, opening its bonds in a lazily
+     * shuffled order
+     *
+     * @param lattice the lattice of the system
+     * @param ends    the two ends of every bond next to each other
+     * @param rng     the random stream owned by this trial
+     * @return the fraction of open bonds when the system first percolates
+     */
+    private static double bondTrial(Lattice lattice, int[] ends, SplittableRandom rng) {
+        int bonds = ends.length / 2;
+        int[] order = new int[bonds];
+        LatticePercolation perc = new LatticePercolation(lattice);
+        for (int k = 0; !perc.percolates(); k++) {
+            int j = k + rng.nextInt(bonds - k);
+            int bond = order[j] == 0 ? j : order[j] - 1;
+            order[j] = order[k] == 0 ? k + 1 : order[k];
+            perc.openBond(ends[2 * bond], ends[(2 * bond) + 1]);
+        }
+        return (double) perc.numberOfOpenBonds() / bonds;
+    }
+
+    /**
+     * runs a single trial by giving every site a random rank and binary searching the
+     * smallest k for which the sites ranked below k percolate, each probe is a flood
+     * fill from the top row so no union-find is built at all
+     *
+     * @param n   the size of the percolation visual
+     * @param rng the random stream owned by this trial
+     * @return the fraction of open sites when the plane first percolates
+     */
+    private static double bisectionTrial(int n, SplittableRandom rng) {
+        int sites = n * n;
+        int[] rank = new int[sites];
+        for (int k = 0; k < sites; k++) {
+            int j = rng.nextInt(k + 1);
+            rank[k] = rank[j];
+            rank[j] = k;
+        }
+        int[] seen = new int[sites];
+        int[] stack = new int[sites];
+        // nothing open never percolates and everything open always does
+        int lo = 0;
+        int hi = sites;
+        int probe = 0;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (floods(n, rank, mid, seen, stack, ++probe)) {
+                hi = mid;
             }
-            results[i] = (double) perc.numberOfOpenSites() / (n * n);
+            else {
+                lo = mid;
+            }
+        }
+        return (double) hi / sites;
+    }
+
+    /**
+     * checks if the sites ranked below k connect the top row to the bottom row
+     *
+     * @param n     the size of the percolation visual
+     * @param rank  the rank of every site
+     * @param k     the number of open sites
+     * @param seen  the probe number that last visited every site
+     * @param stack scratch space for the sites still to visit
+     * @param probe the number of this probe, never used before
+     * @return true if the open sites percolate
+     */
+    private static boolean floods(int n, int[] rank, int k, int[] seen, int[] stack,
+                                  int probe) {
+        int top = 0;
+        for (int site = 0; site < n; site++) {
+            if (rank[site] < k) {
+                seen[site] = probe;
+                stack[top++] = site;
+            }
+        }
+        int bottomRow = n * (n - 1);
+        while (top > 0) {
+            int site = stack[--top];
+            if (site >= bottomRow) return true;
+            int col = site % n;
+            if (site >= n) top = visit(site - n, rank, k, seen, stack, top, probe);
+            top = visit(site + n, rank, k, seen, stack, top, probe);
+            if (col > 0) top = visit(site - 1, rank, k, seen, stack, top, probe);
+            if (col < n - 1) top = visit(site + 1, rank, k, seen, stack, top, probe);
+        }
+        return false;
+    }
+
+    private static int visit(int site, int[] rank, int k, int[] seen, int[] stack, int top,
+                             int probe) {
+        if (rank[site] < k && seen[site] != probe) {
+            seen[site] = probe;
+            stack[top++] = site;
+        }
+        return top;
+    }
+
+    /**
+     * running mean and sum of squared deviations (welford), two of them can be merged
+     * so every task keeps its own and they are combined on the way back up
+     */
+    private static class Accumulator {
+        private long count;
+        private double mean;
+        private double m2;
+
+        private void add(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        private Accumulator merge(Accumulator that) {
+            Accumulator result = new Accumulator();
+            result.count = this.count + that.count;
+            double delta = that.mean - this.mean;
+            result.mean = this.mean + delta * that.count / result.count;
+            result.m2 = this.m2 + that.m2
+                    + delta * delta * ((double) this.count * that.count / result.count);
+            return result;
+        }
+    }
+
+    /**
+     * a single trial, returns the threshold it found using only the given stream
+     */
+    private interface Trial {
+        double run(SplittableRandom rng);
+    }
+
+    /**
+     * runs the trials in [lo, hi) by halving the range until it is small enough,
+     * the right half always gets a stream split off the left one before forking
+     */
+    private static class Trials extends RecursiveTask<Accumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final Trial trial;
+        private final int lo;
+        private final int hi;
+        private final SplittableRandom rng;
+
+        Trials(Trial trial, int lo, int hi, SplittableRandom rng) {
+            this.trial = trial;
+            this.lo = lo;
+            this.hi = hi;
+            this.rng = rng;
         }
 
+        @Override
+        protected Accumulator compute() {
+            if (hi - lo <= TRIALS_PER_TASK) {
+                Accumulator acc = new Accumulator();
+                for (int i = lo; i < hi; i++) {
+                    acc.add(trial.run(rng.split()));
+                }
+                return acc;
+            }
+            int mid = (lo + hi) >>> 1;
+            Trials right = new Trials(trial, mid, hi, rng.split());
+            Trials left = new Trials(trial, lo, mid, rng);
+            right.fork();
+            Accumulator leftAcc = left.compute();
+            // merge in a fixed order so the floating point result is reproducible
+            return leftAcc.merge(right.join());
+        }
     }
 
     /**
@@ -41,7 +389,7 @@ public class PercolationStats {
      * @return the mean value for different percolation sites on different visuals
      */
     public double mean() {
-        return StdStats.mean(this.results);
+        return this.mean;
     }
 
     /**
@@ -50,7 +398,7 @@ public class PercolationStats {
      * @return the standard deviation
      */
     public double stddev() {
-        return StdStats.stddev(this.results);
+        return this.stddev;
     }
 
     /**
@@ -74,12 +422,31 @@ public class PercolationStats {
     /**
      * runs the statistics and prints the results for each value
      *
-     * @param args the size and trails to run the program
+     * @param args the size and trails to run the program, optionally followed by
+     *             the master seed, the number of threads and the sampling
+     *             (rejection, shuffle or bisection)
      */
     public static void main(String[] args) {
         int sideLength = Integer.parseInt(args[0]);
         int trials = Integer.parseInt(args[1]);
-        PercolationStats test = new PercolationStats(sideLength, trials);
+        PercolationStats test;
+        if (args.length >= 3) {
+            long seed = Long.parseLong(args[2]);
+            int threads = args.length >= 4 ? Integer.parseInt(args[3])
+                                           : Runtime.getRuntime().availableProcessors();
+            Sampling sampling = args.length >= 5 ? Sampling.valueOf(args[4].toUpperCase())
+                                                 : Sampling.REJECTION;
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                test = new PercolationStats(sideLength, trials, seed, pool, sampling);
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+        else {
+            test = new PercolationStats(sideLength, trials);
+        }
         StdOut.printf("mean\t=%f%n", test.mean());
         StdOut.printf("stddev\t=%f%n", test.stddev());
         StdOut.printf("95%% confidence interval = [%f, %f]%n", test.confidenceLo(),
@@ -0,0 +1,116 @@
+/******************************************************************************
+ *  Compilation:  javac PercolationTrace.java
+ *  Execution:    java PercolationTrace input.txt trace.bin
+ *                java PercolationTrace trace.bin
+ *  Dependencies: Percolation.java
+ *
+ *  Converts the text input files of PercolationVisualizer (n followed by
+ *  pairs of row i, column j) into a binary trace, or replays a binary
+ *  trace without drawing and reports when the system first percolates.
+ *
+ *  A trace is little endian: the int MAGIC, the grid size n, the number
+ *  of sites as a long, then every site as the int (i - 1) * n + (j - 1).
+ *
+ ******************************************************************************/
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class PercolationTrace {
+    // "PRC1" read as a little endian int
+    private static final int MAGIC = 0x31435250;
+    private static final int HEADER_BYTES = 16;
+    // sites mapped at a time while replaying
+    private static final long WINDOW_SITES = 1L << 28;
+
+    // converts a text input file into a binary trace
+    public static void write(String textFile, String traceFile) {
+        In in = new In(textFile);
+        int n = in.readInt();
+        try (RandomAccessFile file = new RandomAccessFile(traceFile, "rw")) {
+            file.setLength(0);
+            FileChannel channel = file.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            // the count is filled in once all the sites are written
+            buffer.putInt(MAGIC).putInt(n).putLong(0L);
+            long count = 0;
+            while (!in.isEmpty()) {
+                int i = in.readInt();
+                int j = in.readInt();
+                if (i < 1 || i > n || j < 1 || j > n) {
+                    throw new IllegalArgumentException("site out of bounds: " + i + " " + j);
+                }
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) channel.write(buffer);
+                    buffer.clear();
+                }
+                buffer.putInt((i - 1) * n + (j - 1));
+                count++;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+            buffer.putLong(count).flip();
+            channel.write(buffer, 8);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("could not write " + traceFile, e);
+        }
+    }
+
+    // replays a binary trace into a new system, returns the number of open sites when
+    // it first percolates or -1 if it never does
+    public static int replay(String traceFile) {
+        try (RandomAccessFile file = new RandomAccessFile(traceFile, "r")) {
+            FileChannel channel = file.getChannel();
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalArgumentException("not a percolation trace: " + traceFile);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("not a percolation trace: " + traceFile);
+            }
+            int n = header.getInt(4);
+            long count = header.getLong(8);
+            if (channel.size() < HEADER_BYTES + 4 * count) {
+                throw new IllegalArgumentException("truncated percolation trace: " + traceFile);
+            }
+
+            Percolation perc = new Percolation(n);
+            for (long first = 0; first < count; first += WINDOW_SITES) {
+                int sites = (int) Math.min(WINDOW_SITES, count - first);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                                                      HEADER_BYTES + 4 * first, 4L * sites);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                for (int k = 0; k < sites; k++) {
+                    int site = window.getInt(4 * k);
+                    perc.open((site / n) + 1, (site % n) + 1);
+                    if (perc.percolates()) return perc.numberOfOpenSites();
+                }
+            }
+            return -1;
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("could not read " + traceFile, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 2) {
+            write(args[0], args[1]);
+            return;
+        }
+        int opened = replay(args[0]);
+        if (opened < 0) StdOut.println("does not percolate");
+        else StdOut.println("percolates after " + opened + " open sites");
+    }
+}
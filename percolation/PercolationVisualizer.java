@@ -3,16 +3,18 @@
  *  Execution:    java PercolationVisualizer input.txt
  *  Dependencies: Percolation.java
  *
- *  This program takes the name of a file as a command-line argument.
+ *  This program takes the name of a file as a command-line argument,
+ *  optionally followed by the number of sites to open at a time.
  *  From that file, it
  *
  *    - Reads the grid size n of the percolation system.
  *    - Creates an n-by-n grid of sites (intially all blocked)
  *    - Reads in a sequence of sites (row i, column j) to open.
  *
- *  After each site is opened, it draws full sites in light blue,
- *  open sites (that aren't full) in white, and blocked sites in black,
- *  with with site (1, 1) in the upper left-hand corner.
+ *  After each batch of sites is opened (default one site), it redraws
+ *  the sites that changed: full sites in light blue, open sites (that
+ *  aren't full) in white, and blocked sites in black, with site (1, 1)
+ *  in the upper left-hand corner.
  *
  ******************************************************************************/
 
@@ -26,6 +28,9 @@ public class PercolationVisualizer {
     // delay in miliseconds (controls animation speed)
     private static final int DELAY = 100;
 
+    // the most changed sites fetched from a batch at a time
+    static final int CHANGED_BUFFER = 1024;
+
     // draw n-by-n percolation system
     public static void draw(Percolation perc, int n) {
         StdDraw.clear();
@@ -52,32 +57,70 @@ public class PercolationVisualizer {
             }
         }
 
-        // write status text
+        drawStatus(perc, n, opened);
+    }
+
+    // redraw only the sites the last batch changed (packed as (row - 1) * n +
+    // (col - 1)) of a system that was drawn with draw() before, the first count are
+    // in changed already and the rest are fetched through it with nextChanged()
+    public static void draw(Percolation perc, int n, int[] changed, int count) {
+        while (count > 0) {
+            for (int k = 0; k < count; k++) {
+                int site = changed[k];
+                int row = (site / n) + 1;
+                int col = (site % n) + 1;
+                if (perc.isFull(row, col)) StdDraw.setPenColor(StdDraw.BOOK_LIGHT_BLUE);
+                else if (perc.isOpen(row, col)) StdDraw.setPenColor(StdDraw.WHITE);
+                else StdDraw.setPenColor(StdDraw.BLACK);
+                StdDraw.filledSquare(col - 0.5, n - row + 0.5, 0.45);
+            }
+            count = perc.nextChanged(changed);
+        }
+
+        // clear the old status text
+        StdDraw.setPenColor(StdDraw.WHITE);
+        StdDraw.filledRectangle(n / 2.0, -0.025 * n, 0.55 * n, 0.025 * n);
+        drawStatus(perc, n, perc.numberOfOpenSites());
+    }
+
+    // write status text
+    private static void drawStatus(Percolation perc, int n, int opened) {
         StdDraw.setFont(new Font("SansSerif", Font.PLAIN, 12));
         StdDraw.setPenColor(StdDraw.BLACK);
         StdDraw.text(0.25 * n, -0.025 * n, opened + " open sites");
         if (perc.percolates()) StdDraw.text(0.75 * n, -0.025 * n, "percolates");
         else StdDraw.text(0.75 * n, -0.025 * n, "does not percolate");
-
     }
 
     public static void main(String[] args) {
         In in = new In(args[0]);      // input file
         int n = in.readInt();         // n-by-n percolation system
+        int batch = 1;                // sites opened between redraws
+        if (args.length == 2) batch = Integer.parseInt(args[1]);
+        if (batch < 1) throw new IllegalArgumentException("batch has to be at least 1");
 
         // turn on animation mode
         StdDraw.enableDoubleBuffering();
 
-        // repeatedly read in sites to open and draw resulting system
+        // repeatedly read in a batch of sites to open and redraw the sites that changed
         Percolation perc = new Percolation(n);
         draw(perc, n);
         StdDraw.show();
         StdDraw.pause(DELAY);
+        int[] sites = new int[batch];
+        int[] changed = new int[CHANGED_BUFFER];
         while (!in.isEmpty()) {
-            int i = in.readInt();
-            int j = in.readInt();
-            perc.open(i, j);
-            draw(perc, n);
+            int count = 0;
+            while (count < batch && !in.isEmpty()) {
+                int i = in.readInt();
+                int j = in.readInt();
+                // a packed index cannot tell a column past the edge from the next row
+                if (i < 1 || i > n || j < 1 || j > n) {
+                    throw new IndexOutOfBoundsException("site " + i + " " + j + " is outside");
+                }
+                sites[count++] = (i - 1) * n + (j - 1);
+            }
+            draw(perc, n, changed, perc.open(sites, 0, count, changed));
             StdDraw.show();
             StdDraw.pause(DELAY);
         }
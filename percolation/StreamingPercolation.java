@@ -0,0 +1,299 @@
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/* *****************************************************************************
+ *  Last modified:     10/18/2026
+ *  Description:       Answers percolates() and cluster statistics for grids that
+ *                     do not fit in memory by sweeping them one row at a time
+ *                     (Hoshen-Kopelman), only the labels of the previous row and
+ *                     a union-find over two rows worth of labels are kept
+ **************************************************************************** */
+public class StreamingPercolation {
+    private static final byte TOP = 1;
+
+    /**
+     * supplies the open sites of the grid one row at a time from top to bottom,
+     * bit c of the row (word c / 64, bit c % 64) is set if column c + 1 is open
+     */
+    public interface RowSource {
+        /**
+         * fills the given words with the next row, bits past column n are ignored
+         *
+         * @param bits the words to fill, (n + 63) / 64 of them
+         */
+        void nextRow(long[] bits);
+    }
+
+    private final int n;
+    private long openSites;
+    private long clusters;
+    private long largestCluster;
+    private boolean percolates;
+
+    // labels of the previous row, -1 for blocked sites
+    private int[] prevLabel;
+    private int[] curLabel;
+    private long[] labelSize;
+    private byte[] labelFlags;
+    private int labelCount;
+
+    // union-find over the previous row labels (0..n-1) and the current row sites (n..2n-1)
+    private final int[] parent;
+    private final long[] size;
+    private final byte[] flags;
+    // the row a root was last marked live in, or that row + n once it has a new label
+    private final int[] stamp;
+    private final int[] newLabel;
+
+    /**
+     * sweeps the n-by-n grid given by the source, reading every row once
+     *
+     * @param n      the number of grids on every row/column
+     * @param source the rows of the grid from top to bottom
+     */
+    public StreamingPercolation(int n, RowSource source) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The N value has to be grater than 0");
+        }
+        if (source == null) throw new IllegalArgumentException("source cannot be null");
+        this.n = n;
+        this.prevLabel = new int[n];
+        this.curLabel = new int[n];
+        this.labelSize = new long[n];
+        this.labelFlags = new byte[n];
+        this.parent = new int[2 * n];
+        this.size = new long[2 * n];
+        this.flags = new byte[2 * n];
+        this.stamp = new int[2 * n];
+        this.newLabel = new int[2 * n];
+        Arrays.fill(stamp, -1);
+
+        long[] bits = new long[(n + 63) >>> 6];
+        Arrays.fill(prevLabel, -1);
+        for (int row = 0; row < n; row++) {
+            Arrays.fill(bits, 0L);
+            source.nextRow(bits);
+            sweepRow(row, bits);
+        }
+        for (int label = 0; label < labelCount; label++) {
+            finishCluster(labelSize[label]);
+        }
+    }
+
+    /**
+     * joins the open sites of a row with each other and with the labels of the row
+     * above, records every cluster that does not reach this row as finished and
+     * relabels the row with labels 0..m-1
+     *
+     * @param row  the zero based row
+     * @param bits the open sites of the row
+     */
+    private void sweepRow(int row, long[] bits) {
+        for (int label = 0; label < labelCount; label++) {
+            parent[label] = label;
+            size[label] = labelSize[label];
+            flags[label] = labelFlags[label];
+        }
+        for (int col = 0; col < n; col++) {
+            if ((bits[col >>> 6] & (1L << col)) == 0) {
+                curLabel[col] = -1;
+                continue;
+            }
+            openSites++;
+            int site = n + col;
+            parent[site] = site;
+            size[site] = 1;
+            flags[site] = row == 0 ? TOP : 0;
+            curLabel[col] = site;
+            if (col > 0 && curLabel[col - 1] >= 0) union(site, site - 1);
+            if (prevLabel[col] >= 0) union(site, prevLabel[col]);
+        }
+
+        // roots reached by this row are still growing
+        for (int col = 0; col < n; col++) {
+            if (curLabel[col] >= 0) stamp[find(curLabel[col])] = row;
+        }
+        for (int label = 0; label < labelCount; label++) {
+            int root = find(label);
+            if (stamp[root] != row) {
+                // mark it so a cluster made of several old labels is counted once
+                stamp[root] = row;
+                finishCluster(size[root]);
+            }
+        }
+
+        int count = 0;
+        for (int col = 0; col < n; col++) {
+            if (curLabel[col] < 0) continue;
+            int root = find(curLabel[col]);
+            if (row == n - 1 && (flags[root] & TOP) != 0) percolates = true;
+            if (stamp[root] != row + n) {
+                stamp[root] = row + n;
+                newLabel[root] = count;
+                labelSize[count] = size[root];
+                labelFlags[count] = flags[root];
+                count++;
+            }
+            curLabel[col] = newLabel[root];
+        }
+        labelCount = count;
+        int[] temp = prevLabel;
+        prevLabel = curLabel;
+        curLabel = temp;
+    }
+
+    private void finishCluster(long clusterSize) {
+        clusters++;
+        if (clusterSize > largestCluster) largestCluster = clusterSize;
+    }
+
+    private int find(int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+        if (size[rootA] < size[rootB]) {
+            int temp = rootA;
+            rootA = rootB;
+            rootB = temp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        flags[rootA] |= flags[rootB];
+    }
+
+    /**
+     * checks if the plane percolates
+     *
+     * @return true if percolates and false otherwise
+     */
+    public boolean percolates() {
+        return this.percolates;
+    }
+
+    /**
+     * returns the number of open sites of the grid
+     *
+     * @return the number of open sites
+     */
+    public long numberOfOpenSites() {
+        return this.openSites;
+    }
+
+    /**
+     * returns the number of clusters of open sites
+     *
+     * @return the number of clusters
+     */
+    public long numberOfClusters() {
+        return this.clusters;
+    }
+
+    /**
+     * returns the number of open sites in the largest cluster
+     *
+     * @return the size of the largest cluster, 0 if no site is open
+     */
+    public long largestCluster() {
+        return this.largestCluster;
+    }
+
+    /**
+     * a source where every site is open with probability p independently
+     *
+     * @param n    the number of grids on every row/column
+     * @param p    the probability a site is open
+     * @param seed the seed of the random stream
+     * @return the random rows
+     */
+    public static RowSource random(int n, double p, long seed) {
+        if (!(p >= 0.0 && p <= 1.0)) throw new IllegalArgumentException("p must be in [0, 1]");
+        SplittableRandom rng = new SplittableRandom(seed);
+        return bits -> {
+            for (int col = 0; col < n; col++) {
+                if (rng.nextDouble() < p) bits[col >>> 6] |= 1L << col;
+            }
+        };
+    }
+
+    /**
+     * a source reading a file memory mapped a window of rows at a time, the file
+     * holds every row as (n + 63) / 64 little endian longs laid out like the words
+     * handed to RowSource.nextRow
+     *
+     * @param filename the file with the rows
+     * @param n        the number of grids on every row/column
+     * @return the rows of the file
+     */
+    public static RowSource mapped(String filename, int n) {
+        int words = (n + 63) >>> 6;
+        long rowBytes = 8L * words;
+        long rowsPerWindow = Math.max(1, (1L << 30) / rowBytes);
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+            FileChannel channel = file.getChannel();
+            if (channel.size() < rowBytes * n) {
+                throw new IllegalArgumentException("file is too short for n = " + n);
+            }
+            // the mappings stay valid after the channel is closed
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((n + rowsPerWindow - 1)
+                    / rowsPerWindow)];
+            for (int i = 0; i < windows.length; i++) {
+                long first = i * rowsPerWindow;
+                long rows = Math.min(rowsPerWindow, n - first);
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * rowBytes,
+                                         rows * rowBytes);
+                windows[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new RowSource() {
+                private long row;
+
+                public void nextRow(long[] bits) {
+                    MappedByteBuffer window = windows[(int) (row / rowsPerWindow)];
+                    int offset = (int) ((row % rowsPerWindow) * rowBytes);
+                    for (int w = 0; w < words; w++) {
+                        bits[w] = window.getLong(offset + 8 * w);
+                    }
+                    row++;
+                }
+            };
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("could not map " + filename, e);
+        }
+    }
+
+    /**
+     * sweeps a random grid, or the grid in a file, and prints its statistics
+     *
+     * @param args the size followed by either p and a seed or the name of a file
+     */
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        RowSource source;
+        if (args.length >= 3) {
+            source = random(n, Double.parseDouble(args[1]), Long.parseLong(args[2]));
+        }
+        else {
+            source = mapped(args[1], n);
+        }
+        StreamingPercolation perc = new StreamingPercolation(n, source);
+        StdOut.println("open sites      = " + perc.numberOfOpenSites());
+        StdOut.println("clusters        = " + perc.numberOfClusters());
+        StdOut.println("largest cluster = " + perc.largestCluster());
+        StdOut.println(perc.percolates() ? "percolates" : "does not percolate");
+    }
+}
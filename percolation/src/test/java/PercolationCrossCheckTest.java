@@ -0,0 +1,331 @@
+/* *****************************************************************************
+ *  Date:   10/18/2026
+ *  Description:    Checks the other percolation systems against Percolation on
+ *                  small grids opened in a fixed random order
+ **************************************************************************** */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PercolationCrossCheckTest {
+    private static final long SEED = 20261018L;
+    private static final int MAX_N = 8;
+
+    @Test
+    public void compactMatchesPercolation() {
+        Random random = new Random(SEED);
+        for (int n = 1; n <= MAX_N; n++) {
+            Percolation expected = new Percolation(n);
+            CompactPercolation compact = new CompactPercolation(n);
+            for (int site : shuffled(n * n, random)) {
+                int row = (site / n) + 1;
+                int col = (site % n) + 1;
+                expected.open(row, col);
+                compact.open(row, col);
+                assertEquals(expected.percolates(), compact.percolates(), "n=" + n);
+                assertEquals(expected.numberOfOpenSites(), compact.numberOfOpenSites());
+                for (int s = 0; s < n * n; s++) {
+                    int r = (s / n) + 1;
+                    int c = (s % n) + 1;
+                    assertEquals(expected.isOpen(r, c), compact.isOpen(r, c));
+                    assertEquals(expected.isFull(r, c), compact.isFull(r, c),
+                                 "n=" + n + " site " + s);
+                }
+            }
+            // every site is open, so the one component holds them all
+            assertEquals(n * n, compact.clusterSize(1, 1), "n=" + n);
+        }
+    }
+
+    @Test
+    public void compactTakesTheSameSizesAsPercolation() {
+        assertThrows(IllegalArgumentException.class, () -> new Percolation(46341));
+        assertThrows(IllegalArgumentException.class, () -> new CompactPercolation(46341));
+    }
+
+    @Test
+    public void batchOpenReportsExactlyTheChangedSites() {
+        Random random = new Random(SEED);
+        for (int n = 1; n <= MAX_N; n++) {
+            // the changes come back through buffers of one site, of a few sites and
+            // of the whole grid
+            for (int buffer : new int[] { 1, 3, n * n }) {
+                Percolation single = new Percolation(n);
+                Percolation batched = new Percolation(n);
+                int[] sites = shuffled(n * n, random);
+                int[] changed = new int[buffer];
+                int from = 0;
+                while (from < sites.length) {
+                    int to = Math.min(sites.length, from + 1 + random.nextInt(2 * n));
+                    // single opens in between keep the full sites up to date as well
+                    if (random.nextInt(4) == 0) {
+                        int s = random.nextInt(n * n);
+                        single.open((s / n) + 1, (s % n) + 1);
+                        batched.open((s / n) + 1, (s % n) + 1);
+                    }
+                    boolean[] wasOpen = new boolean[n * n];
+                    boolean[] wasFull = new boolean[n * n];
+                    for (int s = 0; s < n * n; s++) {
+                        wasOpen[s] = batched.isOpen((s / n) + 1, (s % n) + 1);
+                        wasFull[s] = batched.isFull((s / n) + 1, (s % n) + 1);
+                    }
+                    for (int i = from; i < to; i++) {
+                        single.open((sites[i] / n) + 1, (sites[i] % n) + 1);
+                    }
+                    boolean[] reported = new boolean[n * n];
+                    int count = batched.open(sites, from, to, changed);
+                    while (count > 0) {
+                        assertTrue(count <= buffer);
+                        for (int k = 0; k < count; k++) {
+                            assertFalse(reported[changed[k]], "n=" + n + " twice " + changed[k]);
+                            reported[changed[k]] = true;
+                        }
+                        count = batched.nextChanged(changed);
+                    }
+                    from = to;
+                    assertEquals(single.percolates(), batched.percolates(), "n=" + n);
+                    assertEquals(single.numberOfOpenSites(), batched.numberOfOpenSites());
+                    for (int s = 0; s < n * n; s++) {
+                        int r = (s / n) + 1;
+                        int c = (s % n) + 1;
+                        assertEquals(single.isOpen(r, c), batched.isOpen(r, c));
+                        assertEquals(single.isFull(r, c), batched.isFull(r, c),
+                                     "n=" + n + " site " + s);
+                        boolean flipped = wasOpen[s] != batched.isOpen(r, c)
+                                || wasFull[s] != batched.isFull(r, c);
+                        assertEquals(flipped, reported[s], "n=" + n + " site " + s);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void squareLatticeMatchesPercolation() {
+        Random random = new Random(SEED);
+        for (int n = 1; n <= MAX_N; n++) {
+            Percolation expected = new Percolation(n);
+            LatticePercolation lattice = new LatticePercolation(Lattice.square(n));
+            for (int site : shuffled(n * n, random)) {
+                expected.open((site / n) + 1, (site % n) + 1);
+                lattice.openSite(site);
+                assertEquals(expected.percolates(), lattice.percolates(), "n=" + n);
+                assertEquals(expected.numberOfOpenSites(), lattice.numberOfOpenSites());
+                for (int s = 0; s < n * n; s++) {
+                    int r = (s / n) + 1;
+                    int c = (s % n) + 1;
+                    assertEquals(expected.isOpen(r, c), lattice.isOpen(s));
+                    assertEquals(expected.isFull(r, c), lattice.isFull(s), "n=" + n + " site " + s);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bondsMatchASearchOverTheOpenBonds() {
+        Random random = new Random(SEED);
+        Lattice[] lattices = {
+                Lattice.square(5), Lattice.periodicSquare(5), Lattice.triangular(5),
+                Lattice.hexagonal(6), Lattice.cubic(3)
+        };
+        for (Lattice lattice : lattices) {
+            int sites = lattice.sites();
+            int[] neighbors = new int[lattice.maxDegree()];
+            // every bond is listed from both of its ends and counted once
+            long bonds = 0;
+            for (int s = 0; s < sites; s++) {
+                int degree = lattice.neighbors(s, neighbors);
+                for (int k = 0; k < degree; k++) {
+                    assertTrue(isNeighbor(lattice, neighbors[k], s), s + " " + neighbors[k]);
+                    if (neighbors[k] > s) bonds++;
+                }
+            }
+            assertEquals(bonds, lattice.bonds());
+
+            LatticePercolation perc = new LatticePercolation(lattice);
+            boolean[][] opened = new boolean[sites][sites];
+            boolean[] open = new boolean[sites];
+            for (int step = 0; step < 2 * bonds; step++) {
+                int a = random.nextInt(sites);
+                int degree = lattice.neighbors(a, neighbors);
+                if (degree == 0) continue;
+                int b = neighbors[random.nextInt(degree)];
+                perc.openBond(a, b);
+                opened[a][b] = true;
+                opened[b][a] = true;
+                open[a] = true;
+                open[b] = true;
+
+                // the full sites are the ones a search from the open top sites reaches
+                boolean[] full = new boolean[sites];
+                int[] stack = new int[sites];
+                int top = 0;
+                for (int s = 0; s < sites; s++) {
+                    if (open[s] && lattice.isTop(s)) {
+                        full[s] = true;
+                        stack[top++] = s;
+                    }
+                }
+                boolean percolates = false;
+                while (top > 0) {
+                    int s = stack[--top];
+                    if (lattice.isBottom(s)) percolates = true;
+                    for (int t = 0; t < sites; t++) {
+                        if (opened[s][t] && !full[t]) {
+                            full[t] = true;
+                            stack[top++] = t;
+                        }
+                    }
+                }
+                for (int s = 0; s < sites; s++) {
+                    assertEquals(open[s], perc.isOpen(s));
+                    assertEquals(full[s], perc.isFull(s), "site " + s);
+                }
+                assertEquals(percolates, perc.percolates());
+            }
+        }
+    }
+
+    @Test
+    public void bondsHaveToJoinNeighbors() {
+        LatticePercolation perc = new LatticePercolation(Lattice.square(4));
+        perc.openBond(0, 1);
+        perc.openBond(5, 1);
+        assertThrows(IllegalArgumentException.class, () -> perc.openBond(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> perc.openBond(3, 4));
+        assertThrows(IllegalArgumentException.class, () -> perc.openBond(2, 2));
+        assertEquals(2, perc.numberOfOpenBonds());
+    }
+
+    @Test
+    public void bondPercolationRejectsTooManyBonds() {
+        // a square lattice that claims more bonds than an array can list
+        Lattice huge = new Lattice() {
+            private final Lattice square = Lattice.square(2);
+
+            @Override
+            public int sites() {
+                return square.sites();
+            }
+
+            @Override
+            public int maxDegree() {
+                return square.maxDegree();
+            }
+
+            @Override
+            public int neighbors(int site, int[] neighbors) {
+                return square.neighbors(site, neighbors);
+            }
+
+            @Override
+            public boolean isTop(int site) {
+                return square.isTop(site);
+            }
+
+            @Override
+            public boolean isBottom(int site) {
+                return square.isBottom(site);
+            }
+
+            @Override
+            public long bonds() {
+                return Integer.MAX_VALUE;
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertThrows(IllegalArgumentException.class,
+                         () -> new PercolationStats(huge, true, 1, SEED, pool));
+            assertThrows(IllegalArgumentException.class,
+                         () -> new PercolationStats(Lattice.square(1), true, 1, SEED, pool));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void dynamicMatchesRebuiltPercolation() {
+        Random random = new Random(SEED);
+        for (int n = 1; n <= MAX_N; n++) {
+            DynamicPercolation dynamic = new DynamicPercolation(n);
+            boolean[] open = new boolean[n * n];
+            // every query is answered by a Percolation opened with the sites open then
+            boolean[] expected = new boolean[16 * n * n];
+            int queries = 0;
+            for (int step = 0; step < 16 * n * n; step++) {
+                int site = random.nextInt(n * n);
+                int row = (site / n) + 1;
+                int col = (site % n) + 1;
+                int op = random.nextInt(4);
+                if (op == 0) {
+                    dynamic.close(row, col);
+                    open[site] = false;
+                }
+                else if (op == 1) {
+                    dynamic.queryFull(row, col);
+                    expected[queries++] = rebuild(n, open).isFull(row, col);
+                }
+                else if (op == 2) {
+                    dynamic.queryPercolates();
+                    expected[queries++] = rebuild(n, open).percolates();
+                }
+                else {
+                    dynamic.open(row, col);
+                    open[site] = true;
+                }
+                assertEquals(rebuild(n, open).numberOfOpenSites(), dynamic.numberOfOpenSites());
+                // the queries can be answered half way and the operations go on
+                if (step == 8 * n * n) assertAnswers(expected, queries, dynamic.answers(), n);
+            }
+            assertAnswers(expected, queries, dynamic.answers(), n);
+        }
+    }
+
+    private static void assertAnswers(boolean[] expected, int queries, boolean[] answers, int n) {
+        assertEquals(queries, answers.length);
+        for (int q = 0; q < queries; q++) {
+            assertEquals(expected[q], answers[q], "n=" + n + " query " + q);
+        }
+    }
+
+    private static boolean isNeighbor(Lattice lattice, int a, int b) {
+        int[] neighbors = new int[lattice.maxDegree()];
+        int degree = lattice.neighbors(a, neighbors);
+        for (int k = 0; k < degree; k++) {
+            if (neighbors[k] == b) return true;
+        }
+        return false;
+    }
+
+    private static Percolation rebuild(int n, boolean[] open) {
+        Percolation perc = new Percolation(n);
+        for (int s = 0; s < open.length; s++) {
+            if (open[s]) perc.open((s / n) + 1, (s % n) + 1);
+        }
+        return perc;
+    }
+
+    // 0..n-1 in a random order
+    private static int[] shuffled(int n, Random random) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+}
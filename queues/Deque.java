@@ -17,6 +17,7 @@ public class Deque<Item> implements Iterable<Item> {
     /**
      * initalizes an empty deque DS
      */
+    @SuppressWarnings("unchecked")
     public Deque() {
         this.deq = (Item[]) new Object[this.capacity];
         this.numberOfItems = 0;
@@ -151,6 +152,7 @@ public class Deque<Item> implements Iterable<Item> {
      * resizes the array when it is full
      */
     private void resize(int cap) {
+        @SuppressWarnings("unchecked")
         Item[] temp = (Item[]) new Object[cap];
         for (int i = 0; i < this.numberOfItems; i++) {
             temp[i] = this.deq[this.first];
@@ -19,6 +19,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
     /**
      * constructs a randomized queue DS
      */
+    @SuppressWarnings("unchecked")
     public RandomizedQueue() {
         this.randomQ = (Item[]) new Object[this.capacity];
         this.first = 0;
@@ -101,6 +102,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
      *
      */
     private void resize(int cap) {
+        @SuppressWarnings("unchecked")
         Item[] temp = (Item[]) new Object[cap];
         for (int i = 0; i < this.numberOfItems; i++) {
             temp[i] = this.randomQ[i];